@@ -1,5 +1,6 @@
 package com.packt.blurApp.config;
 
+import com.packt.blurApp.event.CatalogChangedEvent;
 import com.packt.blurApp.model.Car;
 import com.packt.blurApp.model.Card;
 import com.packt.blurApp.model.RaceParameters;
@@ -16,6 +17,7 @@ import com.packt.blurApp.repository.RaceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,6 +37,7 @@ public class DataInitializer implements CommandLineRunner {
     private final RaceParametersRepository raceParametersRepository;
     private final PasswordEncoder passwordEncoder;
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -44,6 +47,12 @@ public class DataInitializer implements CommandLineRunner {
         // Repair schema constraints that Hibernate `ddl-auto=update` cannot remove.
         repairSchemaConstraints();
 
+        // Move id sequences past rows inserted while the tables used IDENTITY ids.
+        alignIdSequences();
+        backfillRaceVersions();
+        ensureRaceParticipantsUnique();
+        ensureScoresUnique();
+
         // Initialize roles
         initializeRoles();
         
@@ -51,9 +60,11 @@ public class DataInitializer implements CommandLineRunner {
         createDefaultAdmin();
 
         // Initialize game data (cars, cards/maps, race parameters/bonuses)
-        initializeCars();
-        initializeCards();
-        initializeRaceParameters();
+        boolean catalogSeeded = initializeCars() | initializeCards() | initializeRaceParameters();
+        if (catalogSeeded) {
+            // The in-memory game catalog reloads once this transaction commits
+            eventPublisher.publishEvent(new CatalogChangedEvent());
+        }
 
         // Backfill existing DB rows (important when connecting to an existing Neon database)
         backfillExistingUsers();
@@ -63,6 +74,77 @@ public class DataInitializer implements CommandLineRunner {
         log.info("Application data initialized successfully");
     }
 
+    private void alignIdSequences() {
+        // attribution, score and party_member ids come from pooled sequences (allocationSize 50, pooled-lo).
+        // The next value nobody has reserved yet is last_value while the sequence was never called, and
+        // last_value + 50 once it was (that block belongs to whoever called it). When MAX(id) reaches it, the
+        // rows came through the old IDENTITY column (or the sequence was just created by Hibernate at 1), so
+        // restart the sequence just above the existing ids. Otherwise it is left alone so running instances
+        // keep their reserved blocks.
+        String[][] sequences = {
+            {"attribution", "attribution_seq"},
+            {"score", "score_seq"},
+            {"party_member", "party_member_seq"}
+        };
+        for (String[] sequence : sequences) {
+            String table = sequence[0];
+            String name = sequence[1];
+            try {
+                jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + name + " START WITH 1 INCREMENT BY 50");
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                Long nextUnreserved = jdbcTemplate.queryForObject(
+                        "SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM " + name, Long.class);
+                if (maxId != null && nextUnreserved != null && maxId >= nextUnreserved) {
+                    jdbcTemplate.queryForObject("SELECT setval('" + name + "', ?, false)", Long.class, maxId + 1);
+                    log.info("Schema migration: restarted {} at {}", name, maxId + 1);
+                }
+            } catch (Exception ex) {
+                log.warn("Schema migration: unable to align sequence {}: {}", name, ex.getMessage());
+            }
+        }
+    }
+
+    private void ensureRaceParticipantsUnique() {
+        // Bulk joins rely on ON CONFLICT against a unique (race_id, user_id); drop duplicates left by
+        // earlier concurrent joins before creating it
+        try {
+            int removed = jdbcTemplate.update(
+                    "DELETE FROM race_participants a USING race_participants b " +
+                    "WHERE a.ctid < b.ctid AND a.race_id = b.race_id AND a.user_id = b.user_id");
+            if (removed > 0) {
+                log.info("Schema repair: removed {} duplicate race participants", removed);
+            }
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_race_participants_race_user " +
+                    "ON race_participants (race_id, user_id)");
+        } catch (Exception ex) {
+            log.warn("Schema repair: unable to enforce unique race participants: {}", ex.getMessage());
+        }
+    }
+
+    private void ensureScoresUnique() {
+        // Score upserts conflict on a unique (race_id, user_id); keep the latest score of any racer
+        // scored twice by concurrent submissions before the index existed
+        try {
+            int removed = jdbcTemplate.update(
+                    "DELETE FROM score a USING score b " +
+                    "WHERE a.id < b.id AND a.race_id = b.race_id AND a.user_id = b.user_id");
+            if (removed > 0) {
+                log.info("Schema repair: removed {} duplicate scores", removed);
+            }
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_score_race_user ON score (race_id, user_id)");
+        } catch (Exception ex) {
+            log.warn("Schema repair: unable to enforce unique scores: {}", ex.getMessage());
+        }
+    }
+
+    private void backfillRaceVersions() {
+        // race.version was added for optimistic locking; Hibernate cannot increment a NULL version
+        int updated = jdbcTemplate.update("UPDATE race SET version = 0 WHERE version IS NULL");
+        if (updated > 0) {
+            log.info("Backfilled version on {} races", updated);
+        }
+    }
+
     private void repairSchemaConstraints() {
         // Historically the DB had a CHECK constraint that only allowed a fixed set of role names.
         // That prevents creating custom roles and causes 409 errors like:
@@ -88,9 +170,14 @@ public class DataInitializer implements CommandLineRunner {
         } else {
             // Update existing GREAT_ADMIN role with all permissions
             Role templateRole = Role.createGreatAdminRole();
+            boolean permissionsChanged = !templateRole.getPermissions().equals(new java.util.HashSet<>(existingGreatAdmin.getPermissions()));
             existingGreatAdmin.setPermissions(templateRole.getPermissions());
             existingGreatAdmin.setDescription(templateRole.getDescription());
             roleRepository.save(existingGreatAdmin);
+            if (permissionsChanged) {
+                // Tokens issued before this deploy embed the old permission set
+                userRepository.bumpAuthVersionForRole(existingGreatAdmin.getId());
+            }
             log.info("Updated role: GREAT_ADMIN with latest permissions");
         }
         
@@ -102,9 +189,13 @@ public class DataInitializer implements CommandLineRunner {
         } else {
             // Update existing RACER role with all permissions
             Role templateRole = Role.createRacerRole();
+            boolean permissionsChanged = !templateRole.getPermissions().equals(new java.util.HashSet<>(existingRacer.getPermissions()));
             existingRacer.setPermissions(templateRole.getPermissions());
             existingRacer.setDescription(templateRole.getDescription());
             roleRepository.save(existingRacer);
+            if (permissionsChanged) {
+                userRepository.bumpAuthVersionForRole(existingRacer.getId());
+            }
             log.info("Updated role: RACER with latest permissions");
         }
 
@@ -334,12 +425,12 @@ public class DataInitializer implements CommandLineRunner {
         }
     }
 
-    private void initializeCars() {
+    private boolean initializeCars() {
         log.info("Initializing cars...");
         
         if (carRepository.count() > 0) {
             log.info("Cars already exist, skipping initialization");
-            return;
+            return false;
         }
 
         // Car data from cars.csv
@@ -369,14 +460,15 @@ public class DataInitializer implements CommandLineRunner {
         }
 
         log.info("Initialized {} cars", carsData.length);
+        return true;
     }
 
-    private void initializeCards() {
+    private boolean initializeCards() {
         log.info("Initializing cards (maps/tracks)...");
         
         if (cardRepository.count() > 0) {
             log.info("Cards already exist, skipping initialization");
-            return;
+            return false;
         }
 
         // Card data from cards.csv (location, track, imageUrl)
@@ -422,14 +514,15 @@ public class DataInitializer implements CommandLineRunner {
         }
 
         log.info("Initialized {} cards (maps/tracks)", cardsData.length);
+        return true;
     }
 
-    private void initializeRaceParameters() {
+    private boolean initializeRaceParameters() {
         log.info("Initializing race parameters (bonuses/power-ups)...");
         
         if (raceParametersRepository.count() > 0) {
             log.info("Race parameters already exist, skipping initialization");
-            return;
+            return false;
         }
 
         // Race parameters data from race_parameters.csv (name, isActive, downloadUrl)
@@ -458,5 +551,6 @@ public class DataInitializer implements CommandLineRunner {
         }
 
         log.info("Initialized {} race parameters", paramsData.length);
+        return true;
     }
 }
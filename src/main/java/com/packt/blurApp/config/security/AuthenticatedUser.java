@@ -0,0 +1,78 @@
+package com.packt.blurApp.config.security;
+
+import com.packt.blurApp.model.Role;
+import com.packt.blurApp.model.User;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable principal built from access token claims (stateless mode) or from a cached snapshot of
+ * the user, so authenticated requests do not have to load the {@code User} entity and its roles.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails, PermissionHolder {
+
+    private final Long id;
+    private final String username;
+    private final List<String> roleNames;
+    private final long permissionMask;
+    private final long authVersion;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id, String username, Collection<String> roleNames, long permissionMask, long authVersion) {
+        this.id = id;
+        this.username = username;
+        this.roleNames = roleNames == null ? List.of() : List.copyOf(roleNames);
+        this.permissionMask = permissionMask;
+        this.authVersion = authVersion;
+
+        // Same authorities as User.getAuthorities(): ROLE_<name> plus one authority per permission
+        List<GrantedAuthority> granted = new ArrayList<>();
+        for (String roleName : this.roleNames) {
+            granted.add(new SimpleGrantedAuthority("ROLE_" + roleName));
+        }
+        for (var permission : PermissionMask.toList(permissionMask)) {
+            granted.add(new SimpleGrantedAuthority(permission.name()));
+        }
+        this.authorities = List.copyOf(granted);
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getUsername(),
+                user.getAllRoles().stream().map(Role::getName).toList(),
+                user.getPermissionMask(),
+                user.getAuthVersion() == null ? 0L : user.getAuthVersion()
+        );
+    }
+
+    public boolean hasRole(String roleName) {
+        return roleName != null && roleNames.stream().anyMatch(r -> r.equalsIgnoreCase(roleName.trim()));
+    }
+
+    public boolean isGreatAdmin() {
+        return hasRole(RoleNames.GREAT_ADMIN);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+}
@@ -1,5 +1,8 @@
 package com.packt.blurApp.config.security;
 
+import com.packt.blurApp.service.security.AuthVersionService;
+import com.packt.blurApp.service.security.UserAuthorityCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,7 +13,6 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,7 +25,8 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserAuthorityCache userAuthorityCache;
+    private final AuthVersionService authVersionService;
 
     @Override
     protected void doFilterInternal(
@@ -46,30 +49,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
         
         try {
-            // Extract username from JWT
-            username = jwtService.extractUsername(jwt);
+            // Verify the token once (cached) and read the username from its claims
+            final Claims claims = jwtService.verify(jwt);
+            username = claims.getSubject();
 
-            // If username is present and no authentication is set in the context
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Load user details
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // If username is present and no authentication is set in the context.
+            // Refresh tokens are only accepted by /auth/refresh, never as access tokens.
+            if (username != null && !jwtService.isRefreshToken(claims)
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Stateless mode: build the principal from the token claims, guarded by the user's auth version
+                AuthenticatedUser statelessUser = jwtService.isStatelessEnabled() ? jwtService.toAuthenticatedUser(claims) : null;
+                if (statelessUser != null) {
+                    if (authVersionService.isCurrent(statelessUser.getId(), statelessUser.getAuthVersion())) {
+                        authenticate(statelessUser, request);
+                        log.debug("User '{}' authenticated from token claims", username);
+                    } else {
+                        log.debug("Rejected outdated token for user '{}'", username);
+                    }
+                } else {
+                    // Cached authority snapshot; the database is only hit on a miss
+                    UserDetails userDetails = userAuthorityCache.get(username);
 
-                // Validate token
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    // Create authentication token
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    
-                    // Set authentication details
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    // Set authentication in security context
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    
-                    log.debug("User '{}' authenticated successfully", username);
+                    // Validate token
+                    if (jwtService.isTokenValid(claims, userDetails)) {
+                        authenticate(userDetails, request);
+                        log.debug("User '{}' authenticated successfully", username);
+                    }
                 }
             }
         } catch (Exception e) {
@@ -78,4 +83,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(UserDetails userDetails, HttpServletRequest request) {
+        // Create authentication token
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+
+        // Set authentication details
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        // Set authentication in security context
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
@@ -1,23 +1,50 @@
 package com.packt.blurApp.config.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.packt.blurApp.model.Role;
+import com.packt.blurApp.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    // Claims embedded in access tokens when stateless authentication is enabled
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_PERMISSIONS = "pm";
+    static final String CLAIM_PERMISSION_LAYOUT = "pml";
+    static final String CLAIM_AUTH_VERSION = "av";
+
+    static final String CLAIM_TOKEN_TYPE = "typ";
+    static final String REFRESH_TOKEN_TYPE = "refresh";
+    // iat only has second precision; refresh tokens also carry their issue time in milliseconds
+    static final String CLAIM_ISSUED_AT_MILLIS = "iatms";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
@@ -27,6 +54,49 @@ public class JwtService {
     @Value("${jwt.refresh-token.expiration}")
     private long refreshExpiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessEnabled;
+
+    private Key signInKey;
+    private JwtParser jwtParser;
+
+    // Verified claims keyed by a SHA-256 digest of the compact token; entries expire with the token itself
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        Date expiration = claims.getExpiration();
+                        if (expiration == null) {
+                            return 0;
+                        }
+                        long remainingMillis = Math.max(0, expiration.getTime() - System.currentTimeMillis());
+                        return TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -37,7 +107,20 @@ public class JwtService {
     }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (statelessEnabled && userDetails instanceof User user) {
+            var allRoles = user.getAllRoles();
+            long permissionMask = PermissionMask.NONE;
+            for (Role role : allRoles) {
+                permissionMask |= PermissionMask.of(role.getPermissions());
+            }
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLES, allRoles.stream().map(Role::getName).toList());
+            claims.put(CLAIM_PERMISSIONS, permissionMask);
+            claims.put(CLAIM_PERMISSION_LAYOUT, PermissionMask.LAYOUT);
+            claims.put(CLAIM_AUTH_VERSION, user.getAuthVersion() == null ? 0L : user.getAuthVersion());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -45,7 +128,27 @@ public class JwtService {
     }
 
     public String generateRefreshToken(UserDetails userDetails) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+        // A unique id per refresh token so it can be rotated and revoked
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_TOKEN_TYPE, REFRESH_TOKEN_TYPE);
+        claims.put(Claims.ID, UUID.randomUUID().toString());
+        claims.put(CLAIM_ISSUED_AT_MILLIS, System.currentTimeMillis());
+        return buildToken(claims, userDetails, refreshExpiration);
+    }
+
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN_TYPE.equals(claims.get(CLAIM_TOKEN_TYPE));
+    }
+
+    /**
+     * Issue time of the token in milliseconds, or null when it has none. Tokens issued before the
+     * millisecond claim existed fall back to the start of their iat second.
+     */
+    public Long issuedAtMillis(Claims claims) {
+        if (claims.get(CLAIM_ISSUED_AT_MILLIS) instanceof Number millis) {
+            return millis.longValue();
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : null;
     }
 
     private String buildToken(
@@ -59,35 +162,83 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Parses and verifies the token, or returns the claims of a previous successful verification.
+     * Throws a {@link io.jsonwebtoken.JwtException} when the token is malformed, tampered with or expired.
+     */
+    public Claims verify(String token) {
+        String digest = digest(token);
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        verifiedTokens.put(digest, claims);
+        return claims;
+    }
+
+    public boolean isStatelessEnabled() {
+        return statelessEnabled;
+    }
+
+    /**
+     * Builds a principal from the claims of a verified access token, or returns null when the token
+     * does not carry the stateless claims (older tokens, refresh tokens, or a changed permission layout).
+     */
+    public AuthenticatedUser toAuthenticatedUser(Claims claims) {
+        Object userId = claims.get(CLAIM_USER_ID);
+        Object permissions = claims.get(CLAIM_PERMISSIONS);
+        Object layout = claims.get(CLAIM_PERMISSION_LAYOUT);
+        Object authVersion = claims.get(CLAIM_AUTH_VERSION);
+        if (!(userId instanceof Number) || !(permissions instanceof Number)
+                || !(layout instanceof Number) || !(authVersion instanceof Number)) {
+            return null;
+        }
+        if (((Number) layout).intValue() != PermissionMask.LAYOUT) {
+            return null;
+        }
+        List<String> roles = claims.get(CLAIM_ROLES) instanceof Collection<?> names
+                ? names.stream().map(String::valueOf).toList()
+                : List.of();
+        return new AuthenticatedUser(
+                ((Number) userId).longValue(),
+                claims.getSubject(),
+                roles,
+                ((Number) permissions).longValue(),
+                ((Number) authVersion).longValue()
+        );
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return username != null && username.equals(userDetails.getUsername()) && !isExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return verify(token);
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     public long getExpirationTime() {
@@ -0,0 +1,62 @@
+package com.packt.blurApp.config.security;
+
+import com.packt.blurApp.model.enums.PermissionType;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Authorizes methods annotated with {@link RequiresPermission}.
+ */
+public class PermissionAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    // Annotation lookup is reflective; resolve it once per method
+    private final Map<Method, PermissionType> requiredPermissions = new ConcurrentHashMap<>();
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        PermissionType required = requiredPermissions.computeIfAbsent(invocation.getMethod(), method -> {
+            RequiresPermission annotation = AnnotatedElementUtils.findMergedAnnotation(method, RequiresPermission.class);
+            return annotation != null ? annotation.value() : null;
+        });
+        if (required == null) {
+            return GRANTED;
+        }
+
+        Authentication auth = authentication.get();
+        if (auth == null || !auth.isAuthenticated()) {
+            return DENIED;
+        }
+        if (auth.getPrincipal() instanceof PermissionHolder holder) {
+            return holder.hasPermission(required) ? GRANTED : DENIED;
+        }
+
+        // Other principals: same semantics as hasAuthority()
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (required.name().equals(name) || PermissionType.ALL_PERMISSIONS.name().equals(name)) {
+                return GRANTED;
+            }
+        }
+        return DENIED;
+    }
+
+    // Still abstract on AuthorizationManager; the interceptor only calls authorize()
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        return (AuthorizationDecision) authorize(authentication, invocation);
+    }
+}
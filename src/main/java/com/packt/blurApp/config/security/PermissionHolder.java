@@ -0,0 +1,16 @@
+package com.packt.blurApp.config.security;
+
+import com.packt.blurApp.model.enums.PermissionType;
+
+/**
+ * Principal exposing its effective permissions as a {@link PermissionMask}, so authorization
+ * checks test a bit instead of scanning granted authority strings.
+ */
+public interface PermissionHolder {
+
+    long getPermissionMask();
+
+    default boolean hasPermission(PermissionType permission) {
+        return PermissionMask.has(getPermissionMask(), permission);
+    }
+}
@@ -0,0 +1,58 @@
+package com.packt.blurApp.config.security;
+
+import com.packt.blurApp.model.enums.PermissionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact encoding of a set of {@link PermissionType}s as a {@code long}, one bit per enum ordinal.
+ */
+public final class PermissionMask {
+
+    private static final PermissionType[] VALUES = PermissionType.values();
+
+    public static final long NONE = 0L;
+
+    // Fingerprint of the enum layout; tokens encoded against a different layout must not be trusted
+    public static final int LAYOUT = Arrays.hashCode(Arrays.stream(VALUES).map(Enum::name).toArray());
+
+    static {
+        if (VALUES.length > Long.SIZE) {
+            throw new IllegalStateException("PermissionType has more than 64 values; PermissionMask cannot encode it");
+        }
+    }
+
+    private PermissionMask() {
+    }
+
+    public static long bit(PermissionType permission) {
+        return 1L << permission.ordinal();
+    }
+
+    public static long of(Collection<PermissionType> permissions) {
+        long mask = NONE;
+        if (permissions != null) {
+            for (PermissionType permission : permissions) {
+                mask |= bit(permission);
+            }
+        }
+        return mask;
+    }
+
+    public static boolean has(long mask, PermissionType permission) {
+        return (mask & (bit(permission) | bit(PermissionType.ALL_PERMISSIONS))) != 0;
+    }
+
+    public static List<PermissionType> toList(long mask) {
+        List<PermissionType> permissions = new ArrayList<>(Long.bitCount(mask));
+        for (PermissionType permission : VALUES) {
+            if ((mask & bit(permission)) != 0) {
+                permissions.add(permission);
+            }
+        }
+        return permissions;
+    }
+}
@@ -0,0 +1,22 @@
+package com.packt.blurApp.config.security;
+
+import com.packt.blurApp.model.enums.PermissionType;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fast-path equivalent of {@code @PreAuthorize("hasAuthority('X')")}: the permission is checked
+ * against the principal's permission bitmask, without evaluating a SpEL expression.
+ * {@link PermissionType#ALL_PERMISSIONS} grants every permission.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresPermission {
+
+    PermissionType value();
+}
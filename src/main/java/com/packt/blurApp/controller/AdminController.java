@@ -0,0 +1,73 @@
+package com.packt.blurApp.controller;
+
+import com.packt.blurApp.config.security.RequiresPermission;
+import com.packt.blurApp.model.enums.PermissionType;
+import com.packt.blurApp.response.ApiResponse;
+import com.packt.blurApp.service.catalog.GameCatalog;
+import com.packt.blurApp.service.leaderboard.ILeaderboardService;
+import com.packt.blurApp.service.rating.IRatingService;
+import com.packt.blurApp.service.security.UserAuthorityCache;
+import com.packt.blurApp.service.stream.RaceEventBroadcaster;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("${api.prefix}/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final UserAuthorityCache userAuthorityCache;
+    private final GameCatalog gameCatalog;
+    private final RaceEventBroadcaster raceEventBroadcaster;
+    private final ILeaderboardService leaderboardService;
+    private final IRatingService ratingService;
+
+    @GetMapping("/cache-stats")
+    @RequiresPermission(PermissionType.ALL_PERMISSIONS)
+    public ResponseEntity<ApiResponse<?>> getCacheStats() {
+        log.info("GET ${api.prefix}/admin/cache-stats - Get cache statistics");
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("userAuthorities", userAuthorityCache.stats());
+        return ResponseEntity.ok(ApiResponse.success("Cache statistics fetched successfully", stats));
+    }
+
+    @GetMapping("/stream-stats")
+    @RequiresPermission(PermissionType.ALL_PERMISSIONS)
+    public ResponseEntity<ApiResponse<?>> getStreamStats() {
+        log.info("GET ${api.prefix}/admin/stream-stats - Get race event stream statistics");
+        return ResponseEntity.ok(ApiResponse.success("Stream statistics fetched successfully", raceEventBroadcaster.stats()));
+    }
+
+    @PostMapping("/catalog/refresh")
+    @RequiresPermission(PermissionType.ALL_PERMISSIONS)
+    public ResponseEntity<ApiResponse<?>> refreshCatalog() {
+        log.info("POST ${api.prefix}/admin/catalog/refresh - Reload cars, cards and race parameters");
+        gameCatalog.refresh();
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("cars", gameCatalog.getCars().size());
+        counts.put("cards", gameCatalog.getCards().size());
+        counts.put("raceParameters", gameCatalog.getRaceParameters().size());
+        return ResponseEntity.ok(ApiResponse.success("Catalog refreshed successfully", counts));
+    }
+
+    @PostMapping("/leaderboards/rebuild")
+    @RequiresPermission(PermissionType.ALL_PERMISSIONS)
+    public ResponseEntity<ApiResponse<?>> rebuildLeaderboards() {
+        log.info("POST ${api.prefix}/admin/leaderboards/rebuild - Rebuild leaderboards from scores");
+        leaderboardService.rebuild();
+        return ResponseEntity.ok(ApiResponse.success("Leaderboards rebuilt successfully"));
+    }
+
+    @PostMapping("/ratings/replay")
+    @RequiresPermission(PermissionType.ALL_PERMISSIONS)
+    public ResponseEntity<ApiResponse<?>> replayRatings() {
+        log.info("POST ${api.prefix}/admin/ratings/replay - Re-rate every completed race");
+        return ResponseEntity.ok(ApiResponse.success("Ratings replayed successfully", ratingService.replayAll()));
+    }
+}
@@ -1,11 +1,12 @@
 package com.packt.blurApp.controller;
 
+import com.packt.blurApp.config.security.RequiresPermission;
+import com.packt.blurApp.model.enums.PermissionType;
 import com.packt.blurApp.model.Card;
 import com.packt.blurApp.response.ApiResponse;
 import com.packt.blurApp.service.card.ICardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 @RequiredArgsConstructor
@@ -15,7 +16,7 @@ public class CardController {
     private final ICardService cardService;
 
     @GetMapping
-    @PreAuthorize("hasAuthority('VIEW_MAPS')")
+    @RequiresPermission(PermissionType.VIEW_MAPS)
     public ResponseEntity<ApiResponse<?>> getAllCards() {
         return ResponseEntity.ok(ApiResponse.success("All cards fetched", cardService.getAllCards()));
     }
@@ -0,0 +1,54 @@
+package com.packt.blurApp.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.packt.blurApp.config.security.RequiresPermission;
+import com.packt.blurApp.model.enums.PermissionType;
+import com.packt.blurApp.response.ApiResponse;
+import com.packt.blurApp.service.leaderboard.ILeaderboardService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("${api.prefix}/leaderboards")
+@RequiredArgsConstructor
+public class LeaderboardController {
+    private final ILeaderboardService leaderboardService;
+
+    @GetMapping
+    @RequiresPermission(PermissionType.VIEW_SCORE)
+    public ResponseEntity<ApiResponse<?>> getTop(@RequestParam(defaultValue = "10") int limit) {
+        log.info("GET ${api.prefix}/leaderboards - Get all-time top {}", limit);
+        return ResponseEntity.ok(ApiResponse.success("Leaderboard fetched successfully",
+                leaderboardService.getTop(limit)));
+    }
+
+    @GetMapping("/users/{userId}")
+    @RequiresPermission(PermissionType.VIEW_SCORE)
+    public ResponseEntity<ApiResponse<?>> getUserStanding(@PathVariable Long userId) {
+        log.info("GET ${api.prefix}/leaderboards/users/{} - Get all-time standing", userId);
+        return ResponseEntity.ok(ApiResponse.success("Standing fetched successfully",
+                leaderboardService.getUserStanding(userId)));
+    }
+
+    @GetMapping("/party/{partyId}")
+    @RequiresPermission(PermissionType.VIEW_SCORE)
+    public ResponseEntity<ApiResponse<?>> getPartyTop(
+            @PathVariable Long partyId,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("GET ${api.prefix}/leaderboards/party/{} - Get party top {}", partyId, limit);
+        return ResponseEntity.ok(ApiResponse.success("Leaderboard fetched successfully",
+                leaderboardService.getPartyTop(partyId, limit)));
+    }
+
+    @GetMapping("/party/{partyId}/users/{userId}")
+    @RequiresPermission(PermissionType.VIEW_SCORE)
+    public ResponseEntity<ApiResponse<?>> getUserPartyStanding(@PathVariable Long partyId, @PathVariable Long userId) {
+        log.info("GET ${api.prefix}/leaderboards/party/{}/users/{} - Get party standing", partyId, userId);
+        return ResponseEntity.ok(ApiResponse.success("Standing fetched successfully",
+                leaderboardService.getUserPartyStanding(partyId, userId)));
+    }
+}
@@ -2,9 +2,10 @@ package com.packt.blurApp.controller;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import com.packt.blurApp.config.security.RequiresPermission;
+import com.packt.blurApp.model.enums.PermissionType;
 import com.packt.blurApp.dto.Party.AddPartyMemberDto;
 import com.packt.blurApp.dto.Party.PartyMemberDto;
 import com.packt.blurApp.dto.Party.UpdatePartyMemberRoleDto;
@@ -32,7 +33,7 @@ public class PartyController {
     private final IUserService userService;
 
     @GetMapping("/today")
-    @PreAuthorize("hasAuthority('VIEW_PARTY')")
+    @RequiresPermission(PermissionType.VIEW_PARTY)
     public ResponseEntity<ApiResponse<?>> getTodayPartyOrCreate() {
         log.info("GET ${api.prefix}/parties/today - Get or create today's party");
         Party party = partyService.getTodayPartyOrCreate();
@@ -41,7 +42,7 @@ public class PartyController {
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('VIEW_PARTY')")
+    @RequiresPermission(PermissionType.VIEW_PARTY)
     public ResponseEntity<ApiResponse<?>> getPartyById(@PathVariable Long id) {
         log.info("GET ${api.prefix}/parties/{} - Get party by ID", id);
         Party party = partyService.getPartyById(id);
@@ -50,7 +51,7 @@ public class PartyController {
     }
 
     @GetMapping("/date/{date}")
-    @PreAuthorize("hasAuthority('VIEW_PARTY')")
+    @RequiresPermission(PermissionType.VIEW_PARTY)
     public ResponseEntity<ApiResponse<?>> getPartyByDate(
             @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         log.info("GET ${api.prefix}/parties/date/{} - Get party by date", date);
@@ -60,7 +61,7 @@ public class PartyController {
     }
 
     @GetMapping
-    @PreAuthorize("hasAuthority('VIEW_PARTY')")
+    @RequiresPermission(PermissionType.VIEW_PARTY)
     public ResponseEntity<ApiResponse<?>> getAllParties() {
         log.info("GET ${api.prefix}/parties - Get all parties");
         return ResponseEntity.ok(ApiResponse.success("Parties fetched successfully",
@@ -68,7 +69,7 @@ public class PartyController {
     }
 
     @PostMapping("/{partyId}/join")
-    @PreAuthorize("hasAuthority('JOIN_PARTY')")
+    @RequiresPermission(PermissionType.JOIN_PARTY)
     public ResponseEntity<ApiResponse<?>> joinParty(@PathVariable Long partyId) {
         log.info("POST ${api.prefix}/parties/{}/join - Join party", partyId);
         Party party = partyService.joinParty(partyId, userService.getCurrentUser());
@@ -77,7 +78,7 @@ public class PartyController {
     }
 
     @PostMapping("/{partyId}/leave")
-    @PreAuthorize("hasAuthority('JOIN_PARTY')")
+    @RequiresPermission(PermissionType.JOIN_PARTY)
     public ResponseEntity<ApiResponse<?>> leaveParty(@PathVariable Long partyId) {
         log.info("POST ${api.prefix}/parties/{}/leave - Leave party", partyId);
         Party party = partyService.leaveParty(partyId, userService.getCurrentUser());
@@ -86,7 +87,7 @@ public class PartyController {
     }
 
     @PostMapping("/{partyId}/managers/{userId}")
-    @PreAuthorize("hasAuthority('MANAGE_PARTY')")
+    @RequiresPermission(PermissionType.MANAGE_PARTY)
     public ResponseEntity<ApiResponse<?>> assignManager(@PathVariable Long partyId, @PathVariable Long userId) {
         log.info("POST ${api.prefix}/parties/{}/managers/{} - Assign manager", partyId, userId);
         Party party = partyService.assignManager(partyId, userId);
@@ -95,7 +96,7 @@ public class PartyController {
     }
 
     @DeleteMapping("/{partyId}/managers/{userId}")
-    @PreAuthorize("hasAuthority('MANAGE_PARTY')")
+    @RequiresPermission(PermissionType.MANAGE_PARTY)
     public ResponseEntity<ApiResponse<?>> removeManager(@PathVariable Long partyId, @PathVariable Long userId) {
         log.info("DELETE ${api.prefix}/parties/{}/managers/{} - Remove manager", partyId, userId);
         Party party = partyService.removeManager(partyId, userId);
@@ -104,7 +105,7 @@ public class PartyController {
     }
 
     @GetMapping("/{id}/active")
-    @PreAuthorize("hasAuthority('VIEW_PARTY')")
+    @RequiresPermission(PermissionType.VIEW_PARTY)
     public ResponseEntity<ApiResponse<?>> getPartyActiveStatus(@PathVariable Long id) {
         log.info("GET ${api.prefix}/parties/{}/active - Get party active status", id);
         return ResponseEntity.ok(ApiResponse.success(
@@ -113,7 +114,7 @@ public class PartyController {
     }
 
     @GetMapping("/{id}/members")
-    @PreAuthorize("hasAuthority('VIEW_PARTY')")
+    @RequiresPermission(PermissionType.VIEW_PARTY)
     public ResponseEntity<ApiResponse<?>> getPartyMembers(@PathVariable Long id) {
         log.info("GET ${api.prefix}/parties/{}/members - Get party members", id);
         java.util.Set<com.packt.blurApp.dto.User.UserResponseDto> members = partyService.getPartyMembers(id)
@@ -124,7 +125,7 @@ public class PartyController {
     }
 
     @DeleteMapping("/{partyId}")
-    @PreAuthorize("hasAuthority('DELETE_PARTY')")
+    @RequiresPermission(PermissionType.DELETE_PARTY)
     public ResponseEntity<ApiResponse<?>> deactivateParty(@PathVariable Long partyId) {
         log.info("DELETE ${api.prefix}/parties/{} - Deactivate party", partyId);
         partyService.deactivateParty(partyId);
@@ -137,7 +138,7 @@ public class PartyController {
      * Get all party members with their roles
      */
     @GetMapping("/{partyId}/members/roles")
-    @PreAuthorize("hasAuthority('VIEW_PARTY')")
+    @RequiresPermission(PermissionType.VIEW_PARTY)
     public ResponseEntity<ApiResponse<?>> getPartyMembersWithRoles(@PathVariable Long partyId) {
         log.info("GET /parties/{}/members/roles - Get party members with roles", partyId);
         List<PartyMemberDto> members = partyService.getPartyMembersWithRoles(partyId);
@@ -148,7 +149,7 @@ public class PartyController {
      * Add a new member to the party
      */
     @PostMapping("/{partyId}/members")
-    @PreAuthorize("hasAuthority('MANAGE_PARTY')")
+    @RequiresPermission(PermissionType.MANAGE_PARTY)
     public ResponseEntity<ApiResponse<?>> addPartyMember(
             @PathVariable Long partyId,
             @Valid @RequestBody AddPartyMemberDto dto) {
@@ -161,7 +162,7 @@ public class PartyController {
      * Update a member's role (promote to CO_HOST or demote to PARTICIPANT)
      */
     @PatchMapping("/{partyId}/members/{userId}/role")
-    @PreAuthorize("hasAuthority('MANAGE_PARTY')")
+    @RequiresPermission(PermissionType.MANAGE_PARTY)
     public ResponseEntity<ApiResponse<?>> updateMemberRole(
             @PathVariable Long partyId,
             @PathVariable Long userId,
@@ -175,7 +176,7 @@ public class PartyController {
      * Remove a member from the party
      */
     @DeleteMapping("/{partyId}/members/{userId}")
-    @PreAuthorize("hasAuthority('MANAGE_PARTY')")
+    @RequiresPermission(PermissionType.MANAGE_PARTY)
     public ResponseEntity<ApiResponse<?>> removeMember(
             @PathVariable Long partyId,
             @PathVariable Long userId) {
@@ -188,7 +189,7 @@ public class PartyController {
      * Transfer party ownership to another member (HOST only)
      */
     @PostMapping("/{partyId}/transfer-ownership/{newHostId}")
-    @PreAuthorize("hasAuthority('MANAGE_PARTY')")
+    @RequiresPermission(PermissionType.MANAGE_PARTY)
     public ResponseEntity<ApiResponse<?>> transferOwnership(
             @PathVariable Long partyId,
             @PathVariable Long newHostId) {
@@ -201,7 +202,7 @@ public class PartyController {
      * Check if current user can manage the party
      */
     @GetMapping("/{partyId}/can-manage")
-    @PreAuthorize("hasAuthority('VIEW_PARTY')")
+    @RequiresPermission(PermissionType.VIEW_PARTY)
     public ResponseEntity<ApiResponse<?>> canCurrentUserManageParty(@PathVariable Long partyId) {
         log.info("GET /parties/{}/can-manage - Check if user can manage party", partyId);
         boolean canManage = partyService.canCurrentUserManageParty(partyId);
@@ -212,7 +213,7 @@ public class PartyController {
      * Get current user's role in the party
      */
     @GetMapping("/{partyId}/my-role")
-    @PreAuthorize("hasAuthority('VIEW_PARTY')")
+    @RequiresPermission(PermissionType.VIEW_PARTY)
     public ResponseEntity<ApiResponse<?>> getCurrentUserRole(@PathVariable Long partyId) {
         log.info("GET /parties/{}/my-role - Get current user's role in party", partyId);
         PartyRole role = partyService.getCurrentUserRole(partyId);
@@ -224,7 +225,7 @@ public class PartyController {
      * Promote a member to co-host (convenience endpoint)
      */
     @PostMapping("/{partyId}/co-hosts/{userId}")
-    @PreAuthorize("hasAuthority('MANAGE_PARTY')")
+    @RequiresPermission(PermissionType.MANAGE_PARTY)
     public ResponseEntity<ApiResponse<?>> promoteToCoHost(
             @PathVariable Long partyId,
             @PathVariable Long userId) {
@@ -238,7 +239,7 @@ public class PartyController {
      * Demote a co-host to participant (convenience endpoint)
      */
     @DeleteMapping("/{partyId}/co-hosts/{userId}")
-    @PreAuthorize("hasAuthority('MANAGE_PARTY')")
+    @RequiresPermission(PermissionType.MANAGE_PARTY)
     public ResponseEntity<ApiResponse<?>> demoteCoHost(
             @PathVariable Long partyId,
             @PathVariable Long userId) {
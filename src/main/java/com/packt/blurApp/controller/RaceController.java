@@ -1,15 +1,24 @@
 package com.packt.blurApp.controller;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.packt.blurApp.config.security.RequiresPermission;
+import com.packt.blurApp.dto.Race.AddParticipantsDto;
+import com.packt.blurApp.dto.Score.SubmitRaceScoresDto;
+import com.packt.blurApp.mapper.scoreMapper.ScoreMapper;
+import com.packt.blurApp.model.enums.PermissionType;
 import com.packt.blurApp.mapper.raceMapper.RaceMapper;
 import com.packt.blurApp.model.Race;
 import com.packt.blurApp.model.enums.AttributionType;
 import com.packt.blurApp.response.ApiResponse;
 import com.packt.blurApp.service.race.IRaceService;
+import com.packt.blurApp.service.score.IScoreService;
+import com.packt.blurApp.service.stream.RaceEventBroadcaster;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -19,9 +28,11 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class RaceController {
     private final IRaceService raceService;
+    private final RaceEventBroadcaster raceEventBroadcaster;
+    private final IScoreService scoreService;
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('VIEW_RACE')")
+    @RequiresPermission(PermissionType.VIEW_RACE)
     public ResponseEntity<ApiResponse<?>> getRaceById(@PathVariable Long id) {
         log.info("GET ${api.prefix}/races/{} - Get race by ID", id);
         Race race = raceService.getRaceById(id);
@@ -30,15 +41,25 @@ public class RaceController {
     }
 
     @GetMapping
-    @PreAuthorize("hasAuthority('VIEW_RACE')")
+    @RequiresPermission(PermissionType.VIEW_RACE)
     public ResponseEntity<ApiResponse<?>> getAllRaces() {
         log.info("GET ${api.prefix}/races - Get all races");
         return ResponseEntity.ok(ApiResponse.success("Races fetched successfully",
                 RaceMapper.toRaceResponseDtoList(raceService.getAllRaces())));
     }
 
+    @GetMapping("/summaries")
+    @RequiresPermission(PermissionType.VIEW_RACE)
+    public ResponseEntity<ApiResponse<?>> getRaceSummaries(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("GET ${api.prefix}/races/summaries - Get race summaries (cursor {}, size {})", cursor, size);
+        return ResponseEntity.ok(ApiResponse.success("Races fetched successfully",
+                raceService.getRaceSummaries(cursor, size)));
+    }
+
     @GetMapping("/count")
-    @PreAuthorize("hasAuthority('VIEW_RACE')")
+    @RequiresPermission(PermissionType.VIEW_RACE)
     public ResponseEntity<ApiResponse<?>> getTotalRacesCount() {
         log.info("GET ${api.prefix}/races/count - Get total races count");
         return ResponseEntity.ok(ApiResponse.success(
@@ -46,16 +67,75 @@ public class RaceController {
                 new com.packt.blurApp.dto.Race.RaceCountDto(raceService.getTotalRacesCount())));
     }
 
+    @GetMapping("/counts")
+    @RequiresPermission(PermissionType.VIEW_RACE)
+    public ResponseEntity<ApiResponse<?>> getRaceCounts() {
+        log.info("GET ${api.prefix}/races/counts - Get race counts by status");
+        return ResponseEntity.ok(ApiResponse.success("Race counts fetched successfully", raceService.getRaceCounts()));
+    }
+
+    @GetMapping("/counts/daily")
+    @RequiresPermission(PermissionType.VIEW_RACE)
+    public ResponseEntity<ApiResponse<?>> getDailyRaceCounts(@RequestParam(defaultValue = "7") int days) {
+        log.info("GET ${api.prefix}/races/counts/daily - Get race counts for the last {} days", days);
+        return ResponseEntity.ok(ApiResponse.success("Race counts fetched successfully", raceService.getDailyRaceCounts(days)));
+    }
+
+    @GetMapping("/party/{partyId}/counts")
+    @RequiresPermission(PermissionType.VIEW_RACE)
+    public ResponseEntity<ApiResponse<?>> getRaceCountsByPartyId(@PathVariable Long partyId) {
+        log.info("GET ${api.prefix}/races/party/{}/counts - Get race counts by status", partyId);
+        return ResponseEntity.ok(ApiResponse.success("Race counts fetched successfully",
+                raceService.getRaceCountsByPartyId(partyId)));
+    }
+
     @GetMapping("/party/{partyId}")
-    @PreAuthorize("hasAuthority('VIEW_RACE')")
+    @RequiresPermission(PermissionType.VIEW_RACE)
     public ResponseEntity<ApiResponse<?>> getRacesByPartyId(@PathVariable Long partyId) {
         log.info("GET ${api.prefix}/races/party/{} - Get races by party ID", partyId);
         return ResponseEntity.ok(ApiResponse.success("Races fetched successfully",
                 RaceMapper.toRaceResponseDtoList(raceService.getRacesByPartyId(partyId))));
     }
 
+    @GetMapping("/party/{partyId}/summaries")
+    @RequiresPermission(PermissionType.VIEW_RACE)
+    public ResponseEntity<ApiResponse<?>> getRaceSummariesByPartyId(
+            @PathVariable Long partyId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("GET ${api.prefix}/races/party/{}/summaries - Get race summaries by party ID", partyId);
+        return ResponseEntity.ok(ApiResponse.success("Races fetched successfully",
+                raceService.getRaceSummariesByPartyId(partyId, cursor, size)));
+    }
+
+    // Server-Sent Events: one event per race change (joins, card/cars, start/complete/cancel, scores)
+    @GetMapping(value = "/party/{partyId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequiresPermission(PermissionType.VIEW_RACE)
+    public SseEmitter streamPartyEvents(@PathVariable Long partyId) {
+        log.info("GET ${api.prefix}/races/party/{}/events - Subscribe to party race events", partyId);
+        return raceEventBroadcaster.subscribeToParty(partyId);
+    }
+
+    @GetMapping(value = "/{raceId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequiresPermission(PermissionType.VIEW_RACE)
+    public SseEmitter streamRaceEvents(@PathVariable Long raceId) {
+        log.info("GET ${api.prefix}/races/{}/events - Subscribe to race events", raceId);
+        return raceEventBroadcaster.subscribeToRace(raceId);
+    }
+
+    @GetMapping("/status/{status}/summaries")
+    @RequiresPermission(PermissionType.VIEW_RACE)
+    public ResponseEntity<ApiResponse<?>> getRaceSummariesByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("GET ${api.prefix}/races/status/{}/summaries - Get race summaries by status", status);
+        return ResponseEntity.ok(ApiResponse.success("Races fetched successfully",
+                raceService.getRaceSummariesByStatus(status, cursor, size)));
+    }
+
     @GetMapping("/status/{status}")
-    @PreAuthorize("hasAuthority('VIEW_RACE')")
+    @RequiresPermission(PermissionType.VIEW_RACE)
     public ResponseEntity<ApiResponse<?>> getRacesByStatus(@PathVariable String status) {
         log.info("GET ${api.prefix}/races/status/{} - Get races by status", status);
         return ResponseEntity.ok(ApiResponse.success("Races fetched successfully",
@@ -63,7 +143,7 @@ public class RaceController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAuthority('CREATE_RACE')")
+    @RequiresPermission(PermissionType.CREATE_RACE)
     public ResponseEntity<ApiResponse<?>> createRace(
             @RequestParam Long partyId,
             @RequestParam(defaultValue = "PER_USER") String attributionType) {
@@ -75,7 +155,7 @@ public class RaceController {
     }
 
     @PostMapping("/{raceId}/participants/{userId}")
-    @PreAuthorize("hasAuthority('JOIN_RACE')")
+    @RequiresPermission(PermissionType.JOIN_RACE)
     public ResponseEntity<ApiResponse<?>> addParticipant(@PathVariable Long raceId, @PathVariable Long userId) {
         log.info("POST ${api.prefix}/races/{}/participants/{} - Add participant", raceId, userId);
         Race race = raceService.addParticipant(raceId, userId);
@@ -83,8 +163,28 @@ public class RaceController {
                 RaceMapper.toRaceResponseDto(race)));
     }
 
+    @PostMapping("/{raceId}/participants")
+    @RequiresPermission(PermissionType.JOIN_RACE)
+    public ResponseEntity<ApiResponse<?>> addParticipants(
+            @PathVariable Long raceId,
+            @Valid @RequestBody AddParticipantsDto dto) {
+        log.info("POST ${api.prefix}/races/{}/participants - Add {} participants", raceId, dto.getUserIds().size());
+        return ResponseEntity.ok(ApiResponse.success("Participants added successfully",
+                raceService.addParticipants(raceId, dto.getUserIds())));
+    }
+
+    @PostMapping("/{raceId}/scores")
+    @RequiresPermission(PermissionType.SUBMIT_SCORE)
+    public ResponseEntity<ApiResponse<?>> submitRaceScores(
+            @PathVariable Long raceId,
+            @Valid @RequestBody SubmitRaceScoresDto dto) {
+        log.info("POST ${api.prefix}/races/{}/scores - Submit {} scores", raceId, dto.getRankings().size());
+        return ResponseEntity.ok(ApiResponse.success("Scores submitted successfully",
+                ScoreMapper.toScoreResponseDtoList(scoreService.submitRaceScores(raceId, dto.getRankings()))));
+    }
+
     @DeleteMapping("/{raceId}/participants/{userId}")
-    @PreAuthorize("hasAuthority('LEAVE_RACE')")
+    @RequiresPermission(PermissionType.LEAVE_RACE)
     public ResponseEntity<ApiResponse<?>> removeParticipant(@PathVariable Long raceId, @PathVariable Long userId) {
         log.info("DELETE ${api.prefix}/races/{}/participants/{} - Remove participant", raceId, userId);
         Race race = raceService.removeParticipant(raceId, userId);
@@ -93,7 +193,7 @@ public class RaceController {
     }
 
     @PostMapping("/{raceId}/start")
-    @PreAuthorize("hasAuthority('START_RACE')")
+    @RequiresPermission(PermissionType.START_RACE)
     public ResponseEntity<ApiResponse<?>> startRace(@PathVariable Long raceId) {
         log.info("POST ${api.prefix}/races/{}/start - Start race", raceId);
         Race race = raceService.startRace(raceId);
@@ -102,7 +202,7 @@ public class RaceController {
     }
 
     @PostMapping("/{raceId}/complete")
-    @PreAuthorize("hasAuthority('START_RACE')")
+    @RequiresPermission(PermissionType.START_RACE)
     public ResponseEntity<ApiResponse<?>> completeRace(@PathVariable Long raceId) {
         log.info("POST ${api.prefix}/races/{}/complete - Complete race", raceId);
         Race race = raceService.completeRace(raceId);
@@ -111,7 +211,7 @@ public class RaceController {
     }
 
     @PostMapping("/{raceId}/cancel")
-    @PreAuthorize("hasAuthority('DELETE_RACE')")
+    @RequiresPermission(PermissionType.DELETE_RACE)
     public ResponseEntity<ApiResponse<?>> cancelRace(@PathVariable Long raceId) {
         log.info("POST ${api.prefix}/races/{}/cancel - Cancel race", raceId);
         Race race = raceService.cancelRace(raceId);
@@ -120,7 +220,7 @@ public class RaceController {
     }
 
     @PostMapping("/{raceId}/change-card")
-    @PreAuthorize("hasAuthority('START_RACE')")
+    @RequiresPermission(PermissionType.START_RACE)
     public ResponseEntity<ApiResponse<?>> changeCard(@PathVariable Long raceId) {
         log.info("POST ${api.prefix}/races/{}/change-card - Change race card/map", raceId);
         Race race = raceService.changeCard(raceId);
@@ -129,7 +229,7 @@ public class RaceController {
     }
 
     @PostMapping("/{raceId}/assign-cars")
-    @PreAuthorize("hasAuthority('START_RACE')")
+    @RequiresPermission(PermissionType.START_RACE)
     public ResponseEntity<ApiResponse<?>> assignCars(@PathVariable Long raceId) {
         log.info("POST ${api.prefix}/races/{}/assign-cars - Assign cars to participants", raceId);
         Race race = raceService.assignCars(raceId);
@@ -1,9 +1,10 @@
 package com.packt.blurApp.controller;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import com.packt.blurApp.config.security.RequiresPermission;
+import com.packt.blurApp.model.enums.PermissionType;
 import com.packt.blurApp.response.ApiResponse;
 import com.packt.blurApp.service.raceParameters.IRaceParametersService;
 
@@ -16,14 +17,14 @@ public class RaceParametersController {
     private final IRaceParametersService raceParametersService;
 
     @GetMapping
-    @PreAuthorize("hasAuthority('VIEW_RACE')")
+    @RequiresPermission(PermissionType.VIEW_RACE)
     public ResponseEntity<ApiResponse<?>> getAllRaceParameters() {
         return ResponseEntity.ok(ApiResponse.success("Get all race parameters successful", 
             raceParametersService.getAllRaceParameters()));
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('VIEW_RACE')")
+    @RequiresPermission(PermissionType.VIEW_RACE)
     public ResponseEntity<ApiResponse<?>> getRaceParameterById(@PathVariable Long id) {
         return ResponseEntity.ok(ApiResponse.success("Get race parameter successful",
             raceParametersService.getRaceParameterById(id)));
@@ -0,0 +1,47 @@
+package com.packt.blurApp.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.packt.blurApp.config.security.RequiresPermission;
+import com.packt.blurApp.mapper.ratingMapper.RatingMapper;
+import com.packt.blurApp.model.enums.PermissionType;
+import com.packt.blurApp.response.ApiResponse;
+import com.packt.blurApp.service.rating.IRatingService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("${api.prefix}/ratings")
+@RequiredArgsConstructor
+public class RatingController {
+    private final IRatingService ratingService;
+
+    @GetMapping
+    @RequiresPermission(PermissionType.VIEW_STATISTICS)
+    public ResponseEntity<ApiResponse<?>> getTopRatings(@RequestParam(defaultValue = "10") int limit) {
+        log.info("GET ${api.prefix}/ratings - Get top {} ratings", limit);
+        return ResponseEntity.ok(ApiResponse.success("Ratings fetched successfully",
+                RatingMapper.toPlayerRatingDtoList(ratingService.getTopRatings(limit))));
+    }
+
+    @GetMapping("/users/{userId}")
+    @RequiresPermission(PermissionType.VIEW_STATISTICS)
+    public ResponseEntity<ApiResponse<?>> getUserRating(@PathVariable Long userId) {
+        log.info("GET ${api.prefix}/ratings/users/{} - Get user rating", userId);
+        return ResponseEntity.ok(ApiResponse.success("Rating fetched successfully",
+                RatingMapper.toPlayerRatingDto(ratingService.getUserRating(userId))));
+    }
+
+    @GetMapping("/users/{userId}/history")
+    @RequiresPermission(PermissionType.VIEW_HISTORY)
+    public ResponseEntity<ApiResponse<?>> getUserHistory(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("GET ${api.prefix}/ratings/users/{}/history - Get last {} rating changes", userId, limit);
+        return ResponseEntity.ok(ApiResponse.success("Rating history fetched successfully",
+                RatingMapper.toRatingHistoryDtoList(ratingService.getUserHistory(userId, limit))));
+    }
+}
@@ -1,5 +1,6 @@
 package com.packt.blurApp.controller;
 
+import com.packt.blurApp.config.security.RequiresPermission;
 import com.packt.blurApp.dto.Role.AddRoleDto;
 import com.packt.blurApp.dto.Role.RoleResponseDto;
 import com.packt.blurApp.dto.Role.UpdateRoleDto;
@@ -11,7 +12,6 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -27,7 +27,7 @@ public class RoleController {
     private final IRoleService roleService;
 
     @GetMapping
-    @PreAuthorize("hasAuthority('ASSIGN_ROLES')")
+    @RequiresPermission(PermissionType.ASSIGN_ROLES)
     public ResponseEntity<ApiResponse<?>> getAll() {
         List<Role> roles = roleService.getAll();
         List<RoleResponseDto> dtos = roles.stream().map(this::toDto).collect(Collectors.toList());
@@ -35,21 +35,21 @@ public class RoleController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAuthority('ASSIGN_ROLES')")
+    @RequiresPermission(PermissionType.ASSIGN_ROLES)
     public ResponseEntity<ApiResponse<?>> create(@Valid @RequestBody AddRoleDto dto) {
         Role role = roleService.createRole(dto.getName(), dto.getDescription(), dto.getPermissions());
         return ResponseEntity.ok(ApiResponse.success("Role created successfully", toDto(role)));
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAuthority('ASSIGN_ROLES')")
+    @RequiresPermission(PermissionType.ASSIGN_ROLES)
     public ResponseEntity<ApiResponse<?>> update(@PathVariable Long id, @Valid @RequestBody UpdateRoleDto dto) {
         Role role = roleService.updateRole(id, dto.getDescription(), dto.getPermissions());
         return ResponseEntity.ok(ApiResponse.success("Role updated successfully", toDto(role)));
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('ASSIGN_ROLES')")
+    @RequiresPermission(PermissionType.ASSIGN_ROLES)
     public ResponseEntity<ApiResponse<?>> delete(@PathVariable Long id) {
         roleService.deleteRole(id);
         return ResponseEntity.ok(ApiResponse.success("Role deleted successfully"));
@@ -1,9 +1,10 @@
 package com.packt.blurApp.controller;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import com.packt.blurApp.config.security.RequiresPermission;
+import com.packt.blurApp.model.enums.PermissionType;
 import com.packt.blurApp.dto.Score.AddScoreDto;
 import com.packt.blurApp.mapper.scoreMapper.ScoreMapper;
 import com.packt.blurApp.model.Score;
@@ -22,7 +23,7 @@ public class ScoreController {
     private final IScoreService scoreService;
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('VIEW_SCORE')")
+    @RequiresPermission(PermissionType.VIEW_SCORE)
     public ResponseEntity<ApiResponse<?>> getScoreById(@PathVariable Long id) {
         log.info("GET ${api.prefix}/scores/{} - Get score by ID", id);
         Score score = scoreService.getScoreById(id);
@@ -31,7 +32,7 @@ public class ScoreController {
     }
 
     @GetMapping("/user/{userId}")
-    @PreAuthorize("hasAuthority('VIEW_SCORE')")
+    @RequiresPermission(PermissionType.VIEW_SCORE)
     public ResponseEntity<ApiResponse<?>> getScoresByUserId(@PathVariable Long userId) {
         log.info("GET ${api.prefix}/scores/user/{} - Get scores by user ID", userId);
         return ResponseEntity.ok(ApiResponse.success("Scores fetched successfully",
@@ -39,7 +40,7 @@ public class ScoreController {
     }
 
     @GetMapping("/race/{raceId}")
-    @PreAuthorize("hasAuthority('VIEW_SCORE')")
+    @RequiresPermission(PermissionType.VIEW_SCORE)
     public ResponseEntity<ApiResponse<?>> getScoresByRaceId(@PathVariable Long raceId) {
         log.info("GET ${api.prefix}/scores/race/{} - Get scores by race ID", raceId);
         return ResponseEntity.ok(ApiResponse.success("Scores fetched successfully",
@@ -47,7 +48,7 @@ public class ScoreController {
     }
 
     @GetMapping("/race/{raceId}/user/{userId}")
-    @PreAuthorize("hasAuthority('VIEW_SCORE')")
+    @RequiresPermission(PermissionType.VIEW_SCORE)
     public ResponseEntity<ApiResponse<?>> getScoreByRaceIdAndUserId(
             @PathVariable Long raceId, @PathVariable Long userId) {
         log.info("GET ${api.prefix}/scores/race/{}/user/{} - Get score by race and user ID", raceId, userId);
@@ -57,7 +58,7 @@ public class ScoreController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAuthority('SUBMIT_SCORE')")
+    @RequiresPermission(PermissionType.SUBMIT_SCORE)
     public ResponseEntity<ApiResponse<?>> submitScore(@Valid @RequestBody AddScoreDto addScoreDto) {
         log.info("POST ${api.prefix}/scores - Submit score for race {} and user {}", 
                 addScoreDto.getRaceId(), addScoreDto.getUserId());
@@ -67,7 +68,7 @@ public class ScoreController {
     }
 
     @PutMapping("/{scoreId}")
-    @PreAuthorize("hasAuthority('EDIT_SCORE')")
+    @RequiresPermission(PermissionType.EDIT_SCORE)
     public ResponseEntity<ApiResponse<?>> updateScore(
             @PathVariable Long scoreId, @Valid @RequestBody AddScoreDto updateScoreDto) {
         log.info("PUT ${api.prefix}/scores/{} - Update score", scoreId);
@@ -77,7 +78,7 @@ public class ScoreController {
     }
 
     @DeleteMapping("/{scoreId}")
-    @PreAuthorize("hasAuthority('EDIT_SCORE')")
+    @RequiresPermission(PermissionType.EDIT_SCORE)
     public ResponseEntity<ApiResponse<?>> deleteScore(@PathVariable Long scoreId) {
         log.info("DELETE ${api.prefix}/scores/{} - Delete score", scoreId);
         scoreService.deleteScore(scoreId);
@@ -0,0 +1,50 @@
+package com.packt.blurApp.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.packt.blurApp.config.security.RequiresPermission;
+import com.packt.blurApp.model.enums.PermissionType;
+import com.packt.blurApp.response.ApiResponse;
+import com.packt.blurApp.service.statistics.IStatisticsService;
+import com.packt.blurApp.service.user.IUserService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("${api.prefix}/statistics")
+@RequiredArgsConstructor
+public class StatisticsController {
+    private final IStatisticsService statisticsService;
+    private final IUserService userService;
+
+    @GetMapping("/me")
+    @RequiresPermission(PermissionType.VIEW_STATISTICS)
+    public ResponseEntity<ApiResponse<?>> getMyStatistics() {
+        Long userId = userService.getCurrentUserId();
+        log.info("GET ${api.prefix}/statistics/me - Get statistics of user {}", userId);
+        return ResponseEntity.ok(ApiResponse.success("Statistics fetched successfully",
+                statisticsService.getUserStatistics(userId)));
+    }
+
+    @GetMapping("/users/{userId}")
+    @RequiresPermission(PermissionType.VIEW_STATISTICS)
+    public ResponseEntity<ApiResponse<?>> getUserStatistics(@PathVariable Long userId) {
+        log.info("GET ${api.prefix}/statistics/users/{} - Get user statistics", userId);
+        return ResponseEntity.ok(ApiResponse.success("Statistics fetched successfully",
+                statisticsService.getUserStatistics(userId)));
+    }
+
+    @GetMapping("/users/{userId}/history")
+    @RequiresPermission(PermissionType.VIEW_HISTORY)
+    public ResponseEntity<ApiResponse<?>> getUserHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("GET ${api.prefix}/statistics/users/{}/history - Get race results (cursor {}, size {})", userId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success("Race history fetched successfully",
+                statisticsService.getUserResults(userId, cursor, size)));
+    }
+}
@@ -4,12 +4,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import com.packt.blurApp.config.security.RequiresPermission;
+import com.packt.blurApp.model.enums.PermissionType;
 import com.packt.blurApp.dto.User.AddUserDto;
 import com.packt.blurApp.dto.User.UserUpdateDto;
 import com.packt.blurApp.mapper.userMapper.UserResponseMapper;
 import com.packt.blurApp.model.User;
 import com.packt.blurApp.model.Role;
 import com.packt.blurApp.service.role.IRoleService;
+import com.packt.blurApp.service.role.RoleSnapshotCache;
 import com.packt.blurApp.response.ApiResponse;
 import com.packt.blurApp.service.user.IUserService;
 
@@ -28,64 +31,65 @@ import java.util.stream.Collectors;
 public class UserController {
     private final IUserService userService;
     private final IRoleService roleService;
+    private final RoleSnapshotCache roleSnapshotCache;
 
     @GetMapping
-    @PreAuthorize("hasAuthority('VIEW_ALL_USERS')")
+    @RequiresPermission(PermissionType.VIEW_ALL_USERS)
     public ResponseEntity<ApiResponse<?>> getAllUsers() {
         log.info("GET ${api.prefix}/users - Fetch all users");
         return ResponseEntity.ok(ApiResponse.success("Users fetched successfully",
-                UserResponseMapper.toUserGlobalResponseDtoList(userService.getAllUsers())));
+                UserResponseMapper.toUserGlobalResponseDtoList(userService.getAllUsers(), roleSnapshotCache)));
     }
 
     @PostMapping
-    @PreAuthorize("hasAuthority('CREATE_USER')")
+    @RequiresPermission(PermissionType.CREATE_USER)
     public ResponseEntity<ApiResponse<?>> createUser(@Valid @RequestBody AddUserDto userDto) {
         log.info("POST ${api.prefix}/users - Create user: {}", userDto.getUserName());
         User createdUser = userService.createUser(userDto);
         return ResponseEntity.ok(ApiResponse.success("User created successfully",
-                UserResponseMapper.toUserGlobalResponseDto(createdUser)));
+                UserResponseMapper.toUserGlobalResponseDto(createdUser, roleSnapshotCache)));
     }
 
     @GetMapping("/{userId}")
-    @PreAuthorize("hasAuthority('VIEW_ALL_USERS') or @userService.getCurrentUser().getId() == #userId")
+    @PreAuthorize("hasAuthority('VIEW_ALL_USERS') or @userService.getCurrentUserId() == #userId")
     public ResponseEntity<ApiResponse<?>> getUserById(@PathVariable Long userId) {
         log.info("GET ${api.prefix}/users/{} - Fetch user by ID", userId);
         return ResponseEntity.ok(ApiResponse.success("User fetched successfully",
-                UserResponseMapper.toUserGlobalResponseDto(userService.getUserById(userId))));
+                UserResponseMapper.toUserGlobalResponseDto(userService.getUserById(userId), roleSnapshotCache)));
     }
 
     @PutMapping("/{userId}")
-    @PreAuthorize("hasAuthority('UPDATE_USER')")
+    @RequiresPermission(PermissionType.UPDATE_USER)
     public ResponseEntity<ApiResponse<?>> updateUser(@PathVariable Long userId, 
                                                       @Valid @RequestBody UserUpdateDto updateDto) {
         log.info("PUT ${api.prefix}/users/{} - Update user", userId);
         User updatedUser = userService.updateUser(userId, updateDto);
         return ResponseEntity.ok(ApiResponse.success("User updated successfully",
-                UserResponseMapper.toUserGlobalResponseDto(updatedUser)));
+                UserResponseMapper.toUserGlobalResponseDto(updatedUser, roleSnapshotCache)));
     }
 
     @PutMapping("/{userId}/profile")
-    @PreAuthorize("hasAuthority('UPDATE_OWN_PROFILE') and @userService.getCurrentUser().getId() == #userId")
+    @PreAuthorize("hasAuthority('UPDATE_OWN_PROFILE') and @userService.getCurrentUserId() == #userId")
     public ResponseEntity<ApiResponse<?>> updateUserProfile(@PathVariable Long userId,
                                                              @Valid @RequestBody UserUpdateDto updateDto) {
         log.info("PUT ${api.prefix}/users/{}/profile - Update user profile", userId);
         User updatedUser = userService.updateUserProfile(userId, updateDto);
         return ResponseEntity.ok(ApiResponse.success("Profile updated successfully",
-                UserResponseMapper.toUserGlobalResponseDto(updatedUser)));
+                UserResponseMapper.toUserGlobalResponseDto(updatedUser, roleSnapshotCache)));
     }
 
     @PutMapping("/{userId}/role")
-    @PreAuthorize("hasAuthority('ASSIGN_ROLES')")
+    @RequiresPermission(PermissionType.ASSIGN_ROLES)
     public ResponseEntity<ApiResponse<?>> assignRole(@PathVariable Long userId,
                                                       @RequestParam String role) {
         log.info("PUT ${api.prefix}/users/{}/role - Assign role: {}", userId, role);
         User updatedUser = userService.assignRole(userId, role);
         return ResponseEntity.ok(ApiResponse.success("Role assigned successfully",
-                UserResponseMapper.toUserGlobalResponseDto(updatedUser)));
+                UserResponseMapper.toUserGlobalResponseDto(updatedUser, roleSnapshotCache)));
     }
 
     @PutMapping("/{userId}/roles")
-    @PreAuthorize("hasAuthority('ASSIGN_ROLES')")
+    @RequiresPermission(PermissionType.ASSIGN_ROLES)
     public ResponseEntity<ApiResponse<?>> assignRoles(@PathVariable Long userId,
                                                        @RequestBody List<String> roles) {
         log.info("PUT ${api.prefix}/users/{}/roles - Assign roles: {}", userId, roles);
@@ -94,21 +98,21 @@ public class UserController {
                 .collect(Collectors.toSet());
         User updatedUser = userService.assignRoles(userId, roleNames);
         return ResponseEntity.ok(ApiResponse.success("Roles assigned successfully",
-                UserResponseMapper.toUserGlobalResponseDto(updatedUser)));
+                UserResponseMapper.toUserGlobalResponseDto(updatedUser, roleSnapshotCache)));
     }
 
     @DeleteMapping("/{userId}/roles/{role}")
-    @PreAuthorize("hasAuthority('ASSIGN_ROLES')")
+    @RequiresPermission(PermissionType.ASSIGN_ROLES)
     public ResponseEntity<ApiResponse<?>> removeRole(@PathVariable Long userId,
                                                       @PathVariable String role) {
         log.info("DELETE ${api.prefix}/users/{}/roles/{} - Remove role", userId, role);
         User updatedUser = userService.removeRole(userId, role);
         return ResponseEntity.ok(ApiResponse.success("Role removed successfully",
-                UserResponseMapper.toUserGlobalResponseDto(updatedUser)));
+                UserResponseMapper.toUserGlobalResponseDto(updatedUser, roleSnapshotCache)));
     }
 
     @GetMapping("/roles")
-    @PreAuthorize("hasAuthority('VIEW_ALL_USERS')")
+    @RequiresPermission(PermissionType.VIEW_ALL_USERS)
     public ResponseEntity<ApiResponse<?>> getAllRoles() {
         log.info("GET ${api.prefix}/users/roles - Get all available roles");
         List<String> roles = roleService.getAll().stream()
@@ -118,7 +122,7 @@ public class UserController {
     }
 
     @DeleteMapping("/{userId}")
-    @PreAuthorize("hasAuthority('DELETE_USER')")
+    @RequiresPermission(PermissionType.DELETE_USER)
     public ResponseEntity<ApiResponse<?>> deleteUser(@PathVariable Long userId) {
         log.info("DELETE ${api.prefix}/users/{} - Delete user", userId);
         userService.deleteUserById(userId);
@@ -126,11 +130,11 @@ public class UserController {
     }
 
     @GetMapping("/me")
-    @PreAuthorize("hasAuthority('VIEW_OWN_PROFILE')")
+    @RequiresPermission(PermissionType.VIEW_OWN_PROFILE)
     public ResponseEntity<ApiResponse<?>> getCurrentUser() {
         log.info("GET ${api.prefix}/users/me - Get current user");
         User currentUser = userService.getCurrentUser();
         return ResponseEntity.ok(ApiResponse.success("Current user fetched successfully",
-                UserResponseMapper.toUserGlobalResponseDto(currentUser)));
+                UserResponseMapper.toUserGlobalResponseDto(currentUser, roleSnapshotCache)));
     }
 }
@@ -1,6 +1,7 @@
 package com.packt.blurApp.controller.auth;
 
 import com.packt.blurApp.dto.User.UserSignInDto;
+import com.packt.blurApp.response.ApiResponse;
 import com.packt.blurApp.response.AuthResponse;
 import com.packt.blurApp.service.security.AuthService;
 import jakarta.validation.Valid;
@@ -44,4 +45,17 @@ public class AuthController {
         AuthResponse response = authService.refreshToken(refreshToken);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<?>> logout(@RequestHeader("Authorization") String authHeader) {
+        log.info("POST ${api.prefix}/auth/logout - Logout request");
+
+        // Expects the refresh token, same as /refresh
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new IllegalArgumentException("Invalid authorization header");
+        }
+
+        authService.logout(authHeader.substring(7));
+        return ResponseEntity.ok(ApiResponse.success("Logged out successfully"));
+    }
 }
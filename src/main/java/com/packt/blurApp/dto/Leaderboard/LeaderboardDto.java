@@ -0,0 +1,18 @@
+package com.packt.blurApp.dto.Leaderboard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardDto {
+  // Null for the all-time leaderboard
+  private Long partyId;
+  private int totalPlayers;
+  private List<LeaderboardEntryDto> entries = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.packt.blurApp.dto.Leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardEntryDto {
+  // Players with the same points, wins and podiums share a rank
+  private int rank;
+  private Long userId;
+  private String userName;
+  private long points;
+  private long wins;
+  private long podiums;
+  private long racesPlayed;
+}
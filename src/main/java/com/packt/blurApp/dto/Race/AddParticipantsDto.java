@@ -0,0 +1,20 @@
+package com.packt.blurApp.dto.Race;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AddParticipantsDto {
+  @NotEmpty(message = "At least one user id is required")
+  @Size(max = 200, message = "At most 200 users can join in one call")
+  private List<@NotNull Long> userIds = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.packt.blurApp.dto.Race;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.packt.blurApp.model.enums.RaceStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RaceCountsDto {
+    private long total;
+    private Map<RaceStatus, Long> byStatus = new EnumMap<>(RaceStatus.class);
+}
@@ -0,0 +1,21 @@
+package com.packt.blurApp.dto.Race;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.packt.blurApp.model.enums.RaceStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Races created on a day, by their current status
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RaceDailyCountsDto {
+    private LocalDate day;
+    private long total;
+    private Map<RaceStatus, Long> byStatus = new EnumMap<>(RaceStatus.class);
+}
@@ -0,0 +1,22 @@
+package com.packt.blurApp.dto.Race;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RaceParticipantsResultDto {
+  private Long raceId;
+  @Builder.Default
+  private List<Long> addedUserIds = new ArrayList<>();
+  // Requested users that were already participants (not an error: joining is idempotent)
+  @Builder.Default
+  private List<Long> alreadyParticipantUserIds = new ArrayList<>();
+}
@@ -0,0 +1,30 @@
+package com.packt.blurApp.dto.Race;
+
+import java.time.LocalDateTime;
+
+import com.packt.blurApp.model.enums.AttributionType;
+import com.packt.blurApp.model.enums.RaceStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Flat race projection for list views; built directly by a JPQL constructor expression
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RaceSummaryDto {
+  private Long id;
+  private Long partyId;
+  private RaceStatus status;
+  private AttributionType attributionType;
+  private Long cardId;
+  private String cardLocation;
+  private String cardTrack;
+  private Long creatorId;
+  private String creatorUserName;
+  private Integer participantCount;
+  private LocalDateTime createdAt;
+  private LocalDateTime startedAt;
+  private LocalDateTime completedAt;
+}
@@ -0,0 +1,21 @@
+package com.packt.blurApp.dto.Race;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RaceSummaryPageDto {
+  @Builder.Default
+  private List<RaceSummaryDto> races = new ArrayList<>();
+  // Pass back as ?cursor= to get the next (older) page; null when there is none
+  private Long nextCursor;
+  private boolean hasMore;
+}
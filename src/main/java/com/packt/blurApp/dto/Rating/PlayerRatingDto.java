@@ -0,0 +1,18 @@
+package com.packt.blurApp.dto.Rating;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlayerRatingDto {
+  private Long userId;
+  private double rating;
+  private double deviation;
+  private int racesRated;
+  private LocalDateTime updatedAt;
+}
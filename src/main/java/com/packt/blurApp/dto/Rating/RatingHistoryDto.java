@@ -0,0 +1,20 @@
+package com.packt.blurApp.dto.Rating;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RatingHistoryDto {
+  private Long raceId;
+  private int rank;
+  private double ratingBefore;
+  private double ratingAfter;
+  private double deviationBefore;
+  private double deviationAfter;
+  private LocalDateTime ratedAt;
+}
@@ -0,0 +1,18 @@
+package com.packt.blurApp.dto.Rating;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RatingReplayResultDto {
+  private int races;
+  private int players;
+  private int results;
+  // Groups of races without a shared player, rated in parallel one group after the other
+  private int waves;
+  private long computeMillis;
+  private long totalMillis;
+}
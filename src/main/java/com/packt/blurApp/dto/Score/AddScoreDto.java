@@ -11,4 +11,6 @@ public class AddScoreDto {
   private int value;
   private Long raceId;
   private Long userId;
+  // When true, an existing score of the user in the race is replaced instead of rejected
+  private boolean overwrite;
 }
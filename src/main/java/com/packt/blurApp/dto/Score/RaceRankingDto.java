@@ -0,0 +1,15 @@
+package com.packt.blurApp.dto.Score;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RaceRankingDto {
+  @NotNull(message = "User id is required")
+  private Long userId;
+  private int rank;
+}
@@ -0,0 +1,22 @@
+package com.packt.blurApp.dto.Score;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The full ranking of a race: one entry per participant, ranks 1..n
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SubmitRaceScoresDto {
+  @NotEmpty(message = "At least one ranking is required")
+  @Size(max = 200, message = "At most 200 rankings can be submitted in one call")
+  private List<@NotNull @Valid RaceRankingDto> rankings = new ArrayList<>();
+}
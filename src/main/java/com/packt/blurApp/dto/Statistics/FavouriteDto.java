@@ -0,0 +1,15 @@
+package com.packt.blurApp.dto.Statistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Most used car or card of a user and how many races it was used in
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FavouriteDto {
+  private Long id;
+  private String name;
+  private long races;
+}
@@ -0,0 +1,24 @@
+package com.packt.blurApp.dto.Statistics;
+
+import java.time.LocalDateTime;
+
+import com.packt.blurApp.model.enums.RaceStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One scored race of a user, as listed by the statistics history endpoint
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserRaceResultDto {
+  private Long raceId;
+  private Long partyId;
+  private RaceStatus status;
+  private LocalDateTime completedAt;
+  private Integer rank;
+  private Integer points;
+  private String cardLocation;
+  private String cardTrack;
+}
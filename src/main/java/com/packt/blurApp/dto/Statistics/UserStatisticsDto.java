@@ -0,0 +1,32 @@
+package com.packt.blurApp.dto.Statistics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.packt.blurApp.model.enums.RaceStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserStatisticsDto {
+  private Long userId;
+  // Races joined, in total and by their current status
+  private long racesPlayed;
+  @Builder.Default
+  private Map<RaceStatus, Long> racesByStatus = new EnumMap<>(RaceStatus.class);
+  private long racesScored;
+  // Null until the user has a ranked score
+  private Double averageRank;
+  private Integer bestRank;
+  private long wins;
+  private long podiums;
+  private long points;
+  private FavouriteDto favouriteCar;
+  private FavouriteDto favouriteCard;
+}
@@ -0,0 +1,7 @@
+package com.packt.blurApp.event;
+
+/**
+ * Published when cars, cards or race parameters are added, changed or removed.
+ */
+public record CatalogChangedEvent() {
+}
@@ -0,0 +1,17 @@
+package com.packt.blurApp.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.packt.blurApp.model.enums.RaceEventType;
+
+/**
+ * Published by the race and score services when a race changes; delivered to stream subscribers after commit.
+ * {@code userIds} are the users the change is about (joined/left racers, scored user), possibly empty.
+ */
+public record RaceLifecycleEvent(RaceEventType type, Long raceId, Long partyId, List<Long> userIds, LocalDateTime occurredAt) {
+
+    public static RaceLifecycleEvent of(RaceEventType type, Long raceId, Long partyId, List<Long> userIds) {
+        return new RaceLifecycleEvent(type, raceId, partyId, userIds == null ? List.of() : List.copyOf(userIds), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,12 @@
+package com.packt.blurApp.event;
+
+import java.time.LocalDate;
+
+import com.packt.blurApp.model.enums.RaceStatus;
+
+/**
+ * Published by the race service when a race is created ({@code from} is null) or changes status.
+ * Applied to the race counters after commit, so rolled back transitions are never counted.
+ */
+public record RaceStatusChangedEvent(Long raceId, Long partyId, LocalDate createdOn, RaceStatus from, RaceStatus to) {
+}
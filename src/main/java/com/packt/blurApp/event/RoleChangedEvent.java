@@ -0,0 +1,7 @@
+package com.packt.blurApp.event;
+
+/**
+ * Published when a role's permissions change or the role is deleted.
+ */
+public record RoleChangedEvent(Long roleId) {
+}
@@ -0,0 +1,18 @@
+package com.packt.blurApp.event;
+
+/**
+ * Published by the score service for every score written, replaced or deleted; applied to the leaderboards
+ * after commit. The previous values are null for a new score, the new values are null for a deleted one.
+ * {@code transactionId} is the PostgreSQL id of the writing transaction, so a leaderboard loaded from a
+ * snapshot can tell whether that snapshot already counts the change.
+ */
+public record ScoreChangedEvent(
+        Long raceId,
+        Long partyId,
+        Long userId,
+        Integer previousRank,
+        Integer previousPoints,
+        Integer rank,
+        Integer points,
+        Long transactionId) {
+}
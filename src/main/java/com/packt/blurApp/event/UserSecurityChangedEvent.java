@@ -0,0 +1,8 @@
+package com.packt.blurApp.event;
+
+/**
+ * Published when a user's roles, credentials, username or account status change, or the user is deleted.
+ * {@code username} is the name the user was authenticated under before the change.
+ */
+public record UserSecurityChangedEvent(Long userId, String username) {
+}
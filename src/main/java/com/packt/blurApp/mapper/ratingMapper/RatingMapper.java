@@ -0,0 +1,28 @@
+package com.packt.blurApp.mapper.ratingMapper;
+
+import java.util.List;
+
+import com.packt.blurApp.dto.Rating.PlayerRatingDto;
+import com.packt.blurApp.dto.Rating.RatingHistoryDto;
+import com.packt.blurApp.model.PlayerRating;
+import com.packt.blurApp.model.RatingHistory;
+
+public class RatingMapper {
+  public static PlayerRatingDto toPlayerRatingDto(PlayerRating rating) {
+    return new PlayerRatingDto(rating.getUserId(), rating.getRating(), rating.getDeviation(),
+        rating.getRacesRated(), rating.getUpdatedAt());
+  }
+
+  public static List<PlayerRatingDto> toPlayerRatingDtoList(List<PlayerRating> ratings) {
+    return ratings.stream().map(RatingMapper::toPlayerRatingDto).toList();
+  }
+
+  public static RatingHistoryDto toRatingHistoryDto(RatingHistory history) {
+    return new RatingHistoryDto(history.getRaceId(), history.getRank(), history.getRatingBefore(),
+        history.getRatingAfter(), history.getDeviationBefore(), history.getDeviationAfter(), history.getRatedAt());
+  }
+
+  public static List<RatingHistoryDto> toRatingHistoryDtoList(List<RatingHistory> history) {
+    return history.stream().map(RatingMapper::toRatingHistoryDto).toList();
+  }
+}
@@ -1,6 +1,5 @@
 package com.packt.blurApp.mapper.userMapper;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -9,8 +8,9 @@ import com.packt.blurApp.dto.User.UserGlobalResponseDto;
 import com.packt.blurApp.dto.User.UserResponseDto;
 import com.packt.blurApp.dto.User.UserSignInResponseDto;
 import com.packt.blurApp.mapper.raceMapper.RaceMapper;
-import com.packt.blurApp.model.Role;
 import com.packt.blurApp.model.User;
+import com.packt.blurApp.service.role.RoleSnapshot;
+import com.packt.blurApp.service.role.RoleSnapshotCache;
 import org.hibernate.Hibernate;
 
 public class UserResponseMapper {
@@ -23,34 +23,37 @@ public class UserResponseMapper {
     }
 
     public static UserSignInResponseDto toUserSignInResponseDto(User user) {
+        return toUserSignInResponseDto(user, RoleSnapshot.of(user.getAllRoles()));
+    }
+
+    public static UserSignInResponseDto toUserSignInResponseDto(User user, RoleSnapshotCache roleSnapshotCache) {
+        return toUserSignInResponseDto(user, roleSnapshotCache.forUser(user));
+    }
+
+    public static UserSignInResponseDto toUserSignInResponseDto(User user, RoleSnapshot roles) {
         UserSignInResponseDto dto = new UserSignInResponseDto();
         dto.setId(user.getId());
         dto.setUserName(user.getUsername());
         dto.setEmail(user.getEmail());
         
-        // Get all roles and permissions from multiple roles
-        Set<Role> allRoles = user.getAllRoles();
-        if (!allRoles.isEmpty()) {
+        // Roles and permissions come from the shared snapshot of the user's role set
+        if (!roles.roleNames().isEmpty()) {
             // Set primary role (first one) for backward compatibility
-            dto.setRole(allRoles.iterator().next().getName());
-            
-            // Collect all permissions from all roles
-            Set<String> allPermissions = new HashSet<>();
-            for (Role role : allRoles) {
-                if (role.getPermissions() != null) {
-                    allPermissions.addAll(
-                        role.getPermissions().stream()
-                            .map(Enum::name)
-                            .collect(Collectors.toSet())
-                    );
-                }
-            }
-            dto.setPermissions(allPermissions);
+            dto.setRole(roles.primaryRole());
+            dto.setPermissions(roles.permissionNameSet());
         }
         return dto;
     }
 
     public static UserGlobalResponseDto toUserGlobalResponseDto(User user) {
+        return toUserGlobalResponseDto(user, RoleSnapshot.of(user.getAllRoles()));
+    }
+
+    public static UserGlobalResponseDto toUserGlobalResponseDto(User user, RoleSnapshotCache roleSnapshotCache) {
+        return toUserGlobalResponseDto(user, roleSnapshotCache.forUser(user));
+    }
+
+    public static UserGlobalResponseDto toUserGlobalResponseDto(User user, RoleSnapshot roles) {
         UserGlobalResponseDto dto = new UserGlobalResponseDto();
         dto.setId(user.getId());
         dto.setUserName(user.getUsername());
@@ -58,29 +61,15 @@ public class UserResponseMapper {
         dto.setEnabled(user.isEnabled());
         dto.setAccountNonLocked(user.isAccountNonLocked());
         
-        // Get all roles
-        Set<Role> allRoles = user.getAllRoles();
-        if (!allRoles.isEmpty()) {
+        if (!roles.roleNames().isEmpty()) {
             // Set multiple roles
-            dto.setRoles(allRoles.stream()
-                .map(Role::getName)
-                .collect(Collectors.toSet()));
+            dto.setRoles(roles.roleNameSet());
             
             // Set primary role for backward compatibility
-            dto.setRole(allRoles.iterator().next().getName());
+            dto.setRole(roles.primaryRole());
             
-            // Collect all permissions from all roles
-            Set<String> allPermissions = new HashSet<>();
-            for (Role role : allRoles) {
-                if (role.getPermissions() != null) {
-                    allPermissions.addAll(
-                        role.getPermissions().stream()
-                            .map(Enum::name)
-                            .collect(Collectors.toSet())
-                    );
-                }
-            }
-            dto.setPermissions(allPermissions);
+            // Union of all permissions from all roles
+            dto.setPermissions(roles.permissionNameSet());
         }
         
         // Map races only if the collection is initialized to avoid LazyInitializationException
@@ -97,4 +86,10 @@ public class UserResponseMapper {
                 .map(UserResponseMapper::toUserGlobalResponseDto)
                 .collect(Collectors.toSet());
     }
+
+    public static Set<UserGlobalResponseDto> toUserGlobalResponseDtoList(List<User> users, RoleSnapshotCache roleSnapshotCache) {
+        return users.stream()
+                .map(user -> toUserGlobalResponseDto(user, roleSnapshotCache))
+                .collect(Collectors.toSet());
+    }
 }
@@ -19,11 +19,16 @@ import lombok.ToString;
 @ToString(exclude = {"race", "user", "car"})
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Entity
-@Table(name = "attribution")
+@Table(name = "attribution", indexes = {
+        // Per-user car usage lookups of CarAllocationEngine
+        @Index(name = "idx_attribution_user_car", columnList = "user_id, car_id")
+})
 public class Attribution {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids (see DataInitializer#alignIdSequences) so inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attribution_seq")
+    @SequenceGenerator(name = "attribution_seq", sequenceName = "attribution_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
     
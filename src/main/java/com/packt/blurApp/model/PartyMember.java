@@ -25,7 +25,8 @@ import java.time.LocalDateTime;
 public class PartyMember {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "party_member_seq")
+    @SequenceGenerator(name = "party_member_seq", sequenceName = "party_member_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
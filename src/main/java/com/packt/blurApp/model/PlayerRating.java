@@ -0,0 +1,42 @@
+package com.packt.blurApp.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+// Current skill rating of a racer; written by RatingService through JDBC, read through JPA
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Table(name = "player_rating", indexes = {
+        @Index(name = "idx_player_rating_rating", columnList = "rating")
+})
+public class PlayerRating {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private double rating;
+
+    // Uncertainty of the rating; shrinks with every rated race
+    @Column(nullable = false)
+    private double deviation;
+
+    @Column(nullable = false)
+    private int racesRated;
+
+    @Column
+    private LocalDateTime updatedAt;
+}
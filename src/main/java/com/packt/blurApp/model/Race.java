@@ -25,7 +25,10 @@ import lombok.ToString;
 @NoArgsConstructor
 @ToString(exclude = {"party", "creator", "scoreCollector", "participants", "scores", "attributions", "card", "raceParameters"})
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
-@Table(name = "race")
+@Table(name = "race", indexes = {
+    @Index(name = "idx_race_party_id_id", columnList = "party_id, id"),
+    @Index(name = "idx_race_status_id", columnList = "status, id")
+})
 public class Race {
     
     @Id
@@ -33,6 +36,10 @@ public class Race {
     @EqualsAndHashCode.Include
     private Long id;
     
+    // Optimistic lock; existing rows are backfilled to 0 by DataInitializer
+    @Version
+    private Long version;
+
     @NotNull
     @Column(nullable = false)
     private LocalDateTime createdAt;
@@ -71,7 +78,8 @@ public class Race {
     @JoinTable(
         name = "race_participants",
         joinColumns = @JoinColumn(name = "race_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
+        inverseJoinColumns = @JoinColumn(name = "user_id"),
+        uniqueConstraints = @UniqueConstraint(name = "ux_race_participants_race_user", columnNames = {"race_id", "user_id"})
     )
     @Builder.Default
     private Set<User> participants = new HashSet<>();
@@ -142,6 +150,11 @@ public class Race {
     public boolean isParticipant(User user) {
         return participants.contains(user);
     }
+
+    // Id-only check, for callers that do not need the current user entity
+    public boolean isParticipant(Long userId) {
+        return userId != null && participants.stream().anyMatch(p -> userId.equals(p.getId()));
+    }
     
     public void start() {
         this.status = RaceStatus.IN_PROGRESS;
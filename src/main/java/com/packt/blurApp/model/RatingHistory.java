@@ -0,0 +1,58 @@
+package com.packt.blurApp.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+// Rating change of one racer in one completed race
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Table(name = "rating_history",
+        uniqueConstraints = {
+                // A race is rated once; RatingService checks it before rating
+                @UniqueConstraint(name = "ux_rating_history_race_user", columnNames = {"race_id", "user_id"})
+        },
+        indexes = {
+                @Index(name = "idx_rating_history_user_id", columnList = "user_id, id")
+        })
+public class RatingHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "race_id", nullable = false)
+    private Long raceId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private int rank;
+
+    @Column(nullable = false)
+    private double ratingBefore;
+
+    @Column(nullable = false)
+    private double ratingAfter;
+
+    @Column(nullable = false)
+    private double deviationBefore;
+
+    @Column(nullable = false)
+    private double deviationAfter;
+
+    @Column(nullable = false)
+    private LocalDateTime ratedAt;
+}
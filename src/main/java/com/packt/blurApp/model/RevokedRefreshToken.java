@@ -0,0 +1,38 @@
+package com.packt.blurApp.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token (by its {@code jti}) that can no longer be used, either because it was rotated
+ * or because the user logged out. Rows are purged once the token would have expired anyway.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "revoked_refresh_token",
+        indexes = @Index(name = "idx_revoked_refresh_token_expires_at", columnList = "expires_at"))
+public class RevokedRefreshToken {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+}
@@ -1,8 +1,10 @@
 package com.packt.blurApp.model;
 
 import com.packt.blurApp.model.enums.PermissionType;
+import com.packt.blurApp.config.security.PermissionMask;
 import com.packt.blurApp.config.security.RoleNames;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -42,11 +44,35 @@ public class Role {
     @Column(name = "permission")
     @Builder.Default
     private Set<PermissionType> permissions = new HashSet<>();
+
+    // Bitmask over PermissionType ordinals, recomputed whenever the permission set is loaded or replaced
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private long permissionMask;
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void computePermissionMask() {
+        this.permissionMask = PermissionMask.of(permissions);
+    }
+
+    public void setPermissions(Set<PermissionType> permissions) {
+        this.permissions = permissions;
+        computePermissionMask();
+    }
+
+    public long getPermissionMask() {
+        // Roles built in memory (builder) have not gone through a lifecycle callback yet
+        if (permissionMask == PermissionMask.NONE && permissions != null && !permissions.isEmpty()) {
+            computePermissionMask();
+        }
+        return permissionMask;
+    }
     
     // Helper method to check if role has a specific permission
     public boolean hasPermission(PermissionType permission) {
-        return permissions.contains(PermissionType.ALL_PERMISSIONS) || 
-               permissions.contains(permission);
+        return PermissionMask.has(getPermissionMask(), permission);
     }
     
     // Predefined roles with their permissions
@@ -20,11 +20,15 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @ToString(exclude = {"race", "user", "submittedBy"})
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
-@Table(name = "score")
+@Table(name = "score", uniqueConstraints = {
+        // One score per racer and race; the upsert in ScoreRepository conflicts on it
+        @UniqueConstraint(name = "ux_score_race_user", columnNames = {"race_id", "user_id"})
+})
 public class Score {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "score_seq")
+    @SequenceGenerator(name = "score_seq", sequenceName = "score_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
     
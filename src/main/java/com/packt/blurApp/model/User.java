@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -21,6 +22,8 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.packt.blurApp.config.security.PermissionHolder;
+import com.packt.blurApp.config.security.PermissionMask;
 import com.packt.blurApp.config.security.RoleNames;
 
 @Entity
@@ -32,7 +35,7 @@ import com.packt.blurApp.config.security.RoleNames;
 @ToString(exclude = {"password", "roles", "role", "scores", "races"})
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Table(name = "app_user")
-public class User implements UserDetails {
+public class User implements UserDetails, PermissionHolder {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -95,6 +98,16 @@ public class User implements UserDetails {
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
 
+    // Refresh tokens issued before this instant are rejected
+    @Column(name = "password_changed_at")
+    private LocalDateTime passwordChangedAt;
+
+    // Incremented whenever roles, credentials or account status change; stateless tokens carrying
+    // an older value are rejected by the authentication filter.
+    @Column(name = "auth_version", nullable = true)
+    @Builder.Default
+    private Long authVersion = 0L;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private Set<Score> scores = new HashSet<>();
@@ -105,6 +118,12 @@ public class User implements UserDetails {
     @Builder.Default
     private Set<Race> races = new HashSet<>();
 
+    // Union of the roles' permission masks; reset by the role mutators below
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Long permissionMask;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -152,13 +171,48 @@ public class User implements UserDetails {
         return authorities;
     }
     
+    public void bumpAuthVersion() {
+        this.authVersion = (authVersion == null ? 0L : authVersion) + 1;
+    }
+
+    @Override
+    public long getPermissionMask() {
+        Long mask = permissionMask;
+        if (mask == null) {
+            long union = PermissionMask.NONE;
+            for (Role r : getAllRoles()) {
+                union |= r.getPermissionMask();
+            }
+            mask = union;
+            permissionMask = mask;
+        }
+        return mask;
+    }
+
     // Helper methods for multiple roles
     public void addRole(Role role) {
         this.roles.add(role);
+        this.permissionMask = null;
     }
     
     public void removeRole(Role role) {
         this.roles.remove(role);
+        this.permissionMask = null;
+    }
+
+    public void clearRoles() {
+        this.roles.clear();
+        this.permissionMask = null;
+    }
+
+    public void setRoles(Set<Role> roles) {
+        this.roles = roles;
+        this.permissionMask = null;
+    }
+
+    public void setRole(Role role) {
+        this.role = role;
+        this.permissionMask = null;
     }
     
     public boolean hasRole(String roleName) {
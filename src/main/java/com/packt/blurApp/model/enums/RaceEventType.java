@@ -0,0 +1,16 @@
+package com.packt.blurApp.model.enums;
+
+// Race lifecycle changes pushed to stream subscribers
+public enum RaceEventType {
+    RACE_CREATED,
+    PARTICIPANTS_JOINED,
+    PARTICIPANT_LEFT,
+    CARD_CHANGED,
+    CARS_ASSIGNED,
+    RACE_STARTED,
+    RACE_COMPLETED,
+    RACE_CANCELLED,
+    SCORE_SUBMITTED,
+    SCORE_UPDATED,
+    SCORE_DELETED
+}
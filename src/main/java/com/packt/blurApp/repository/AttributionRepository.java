@@ -1,7 +1,48 @@
 package com.packt.blurApp.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import com.packt.blurApp.model.Attribution;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface AttributionRepository extends JpaRepository<Attribution, Long> {
+    boolean existsByRace_Id(Long raceId);
+
+    // How often and how recently (highest attribution id) each car was driven; seeds CarAllocationEngine
+    interface CarUsageView {
+        Long getOwnerId();
+        Long getCarId();
+        Long getUses();
+        Long getLastAttributionId();
+    }
+
+    // Most driven cars of a racer, counting their own attributions and the shared car of races they joined
+    @Query("""
+            select c.id as id, c.name as name, count(distinct r.id) as races
+            from Attribution a join a.car c join a.race r join r.participants u
+            where u.id = :userId and (a.user is null or a.user.id = :userId)
+            group by c.id, c.name
+            order by count(distinct r.id) desc, c.id
+            """)
+    List<RaceRepository.UsageView> findCarUsageByParticipant(@Param("userId") Long userId, Pageable limit);
+
+    @Query("""
+            select a.user.id as ownerId, a.car.id as carId, count(a) as uses, max(a.id) as lastAttributionId
+            from Attribution a
+            where a.user.id in :userIds and a.car is not null
+            group by a.user.id, a.car.id
+            """)
+    List<CarUsageView> findCarUsageByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query("""
+            select a.race.party.id as ownerId, a.car.id as carId, count(a) as uses, max(a.id) as lastAttributionId
+            from Attribution a
+            where a.race.party.id = :partyId and a.car is not null
+            group by a.race.party.id, a.car.id
+            """)
+    List<CarUsageView> findCarUsageByPartyId(@Param("partyId") Long partyId);
 }
@@ -5,10 +5,13 @@ import com.packt.blurApp.model.PartyMember;
 import com.packt.blurApp.model.User;
 import com.packt.blurApp.model.enums.PartyRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -62,6 +65,17 @@ public interface PartyMemberRepository extends JpaRepository<PartyMember, Long>
            "WHERE pm.party.id = :partyId AND pm.user.id = :userId AND pm.role = 'HOST'")
     boolean isUserHostOfParty(@Param("partyId") Long partyId, @Param("userId") Long userId);
     
+    // Implied membership for racers joining a race: existing members are left untouched by the
+    // (party_id, user_id) unique constraint, so concurrent joiners never fail or overwrite each other
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO party_member (id, party_id, user_id, role, joined_at, updated_at) " +
+                   "SELECT nextval('party_member_seq'), :partyId, u.id, 'PARTICIPANT', now(), now() " +
+                   "FROM app_user u WHERE u.id IN (:userIds) " +
+                   "ON CONFLICT (party_id, user_id) DO NOTHING",
+           nativeQuery = true)
+    int insertParticipants(@Param("partyId") Long partyId, @Param("userIds") Collection<Long> userIds);
+
     // Delete member from party
     void deleteByPartyAndUser(Party party, User user);
     
@@ -0,0 +1,14 @@
+package com.packt.blurApp.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.packt.blurApp.model.PlayerRating;
+
+@Repository
+public interface PlayerRatingRepository extends JpaRepository<PlayerRating, Long> {
+    List<PlayerRating> findAllByOrderByRatingDescUserIdAsc(Pageable limit);
+}
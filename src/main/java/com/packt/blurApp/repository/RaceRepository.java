@@ -1,80 +1,228 @@
 package com.packt.blurApp.repository;
 
+import java.util.Collection;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.packt.blurApp.dto.Race.RaceSummaryDto;
 import com.packt.blurApp.model.Race;
+import com.packt.blurApp.model.User;
+import com.packt.blurApp.model.enums.AttributionType;
 import com.packt.blurApp.model.enums.RaceStatus;
 
 @Repository
 public interface RaceRepository extends JpaRepository<Race, Long> {
 
-    @EntityGraph(attributePaths = {
-            "party",
-            "creator",
-            "scoreCollector",
-            "card",
-            "raceParameters",
-            "participants",
-            "scores",
-            "scores.user",
-            "attributions",
-            "attributions.user",
-            "attributions.car"
-    })
-    java.util.Optional<Race> findWithGraphById(Long id);
-
-    @Override
-    @EntityGraph(attributePaths = {
-            "party",
-            "creator",
-            "scoreCollector",
-            "card",
-            "raceParameters",
-            "participants",
-            "scores",
-            "scores.user",
-            "attributions",
-            "attributions.user",
-            "attributions.car"
-    })
-    List<Race> findAll();
-
-    @EntityGraph(attributePaths = {
-            "party",
-            "creator",
-            "scoreCollector",
-            "card",
-            "raceParameters",
-            "participants",
-            "scores",
-            "scores.user",
-            "attributions",
-            "attributions.user",
-            "attributions.car"
-    })
-    List<Race> findByParty_Id(Long partyId);
-
-    @EntityGraph(attributePaths = {
-            "party",
-            "creator",
-            "scoreCollector",
-            "card",
-            "raceParameters",
-            "participants",
-            "scores",
-            "scores.user",
-            "attributions",
-            "attributions.user",
-            "attributions.car"
-    })
-    List<Race> findByStatus(RaceStatus status);
+    // Multi-query hydration (see RaceHydrator): the to-one associations are joined into the base query,
+    // then each collection is fetched by its own query over the same ids, so rows never multiply across
+    // collections. Hibernate fills the collections of the Race instances already in the persistence context.
+    @Query("""
+            select r from Race r
+            left join fetch r.party
+            left join fetch r.creator
+            left join fetch r.scoreCollector
+            left join fetch r.card
+            where r.id in :ids
+            """)
+    List<Race> findBaseByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select r from Race r left join fetch r.participants where r.id in :ids")
+    List<Race> fetchParticipants(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select r from Race r
+            left join fetch r.scores s
+            left join fetch s.user
+            where r.id in :ids
+            """)
+    List<Race> fetchScores(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select r from Race r
+            left join fetch r.attributions a
+            left join fetch a.user
+            left join fetch a.car
+            where r.id in :ids
+            """)
+    List<Race> fetchAttributions(@Param("ids") Collection<Long> ids);
+
+    @Query("select r from Race r left join fetch r.raceParameters where r.id in :ids")
+    List<Race> fetchRaceParameters(@Param("ids") Collection<Long> ids);
+
+    @Query("select r.id from Race r order by r.id desc")
+    List<Long> findAllIds();
+
+    @Query("select r.id from Race r where r.party.id = :partyId order by r.id desc")
+    List<Long> findIdsByPartyId(@Param("partyId") Long partyId);
+
+    @Query("select r.id from Race r where r.status = :status order by r.id desc")
+    List<Long> findIdsByStatus(@Param("status") RaceStatus status);
 
     List<Race> findByPartyIdAndStatus(Long partyId, RaceStatus status);
 
-    // Used to avoid repeating the same card on consecutive race creations for a party
-    java.util.Optional<Race> findTopByParty_IdOrderByIdDesc(Long partyId);
+    interface RaceStateView {
+        Long getId();
+        RaceStatus getStatus();
+        AttributionType getAttributionType();
+        Long getPartyId();
+        LocalDateTime getCreatedAt();
+    }
+
+    @Query("""
+            select r.id as id, r.status as status, r.attributionType as attributionType, p.id as partyId,
+                   r.createdAt as createdAt
+            from Race r left join r.party p
+            where r.id = :id
+            """)
+    Optional<RaceStateView> findStateById(@Param("id") Long id);
+
+    // Adds the users to a pending race in one statement and returns the ids actually inserted; users who
+    // already joined are skipped by the unique (race_id, user_id) index instead of a read-then-write check.
+    // The status guard share-locks the race row: concurrent joiners do not block each other, but a join and
+    // a transition (an UPDATE of that row) are serialized, so a join either commits before the race starts
+    // or re-checks the status after it and inserts nothing.
+    @Transactional
+    @Query(value = """
+            INSERT INTO race_participants (race_id, user_id)
+            SELECT :raceId, u.id FROM app_user u
+            WHERE u.id IN (:userIds)
+              AND EXISTS (SELECT 1 FROM race r WHERE r.id = :raceId AND r.status = 'PENDING' FOR SHARE)
+            ON CONFLICT DO NOTHING
+            RETURNING user_id
+            """, nativeQuery = true)
+    List<Long> insertParticipants(@Param("raceId") Long raceId, @Param("userIds") Collection<Long> userIds);
+
+    @Query("select p.id from Race r join r.participants p where r.id = :raceId")
+    List<Long> findParticipantIds(@Param("raceId") Long raceId);
+
+    // Lifecycle transitions as single guarded statements: the WHERE clause on the current status makes
+    // concurrent transitions exclusive (0 rows updated for the loser) and the version bump invalidates
+    // any stale copy of the race that another transaction is about to save.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Race r
+            set r.status = com.packt.blurApp.model.enums.RaceStatus.IN_PROGRESS,
+                r.startedAt = :startedAt,
+                r.version = coalesce(r.version, 0) + 1
+            where r.id = :id and r.status = com.packt.blurApp.model.enums.RaceStatus.PENDING
+            """)
+    int markStarted(@Param("id") Long id, @Param("startedAt") LocalDateTime startedAt);
+
+    // Set once the race has started, from the participants read after markStarted
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Race r set r.scoreCollector = :scoreCollector where r.id = :id")
+    int assignScoreCollector(@Param("id") Long id, @Param("scoreCollector") User scoreCollector);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Race r
+            set r.status = com.packt.blurApp.model.enums.RaceStatus.COMPLETED,
+                r.completedAt = :completedAt,
+                r.version = coalesce(r.version, 0) + 1
+            where r.id = :id and r.status = com.packt.blurApp.model.enums.RaceStatus.IN_PROGRESS
+            """)
+    int markCompleted(@Param("id") Long id, @Param("completedAt") LocalDateTime completedAt);
+
+    // Guarded on the status the caller saw, so the counters know exactly which status the race left
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Race r
+            set r.status = com.packt.blurApp.model.enums.RaceStatus.CANCELLED,
+                r.version = coalesce(r.version, 0) + 1
+            where r.id = :id and r.status = :expected
+            """)
+    int markCancelled(@Param("id") Long id, @Param("expected") RaceStatus expected);
+
+    interface StatusTotalView {
+        RaceStatus getStatus();
+        Long getTotal();
+    }
+
+    @Query("select r.status as status, count(r) as total from Race r join r.participants u where u.id = :userId group by r.status")
+    List<StatusTotalView> countByParticipantGroupByStatus(@Param("userId") Long userId);
+
+    interface UsageView {
+        Long getId();
+        String getName();
+        Long getRaces();
+    }
+
+    // Most played cards of a participant, most used first
+    @Query("""
+            select c.id as id, concat(c.location, ' - ', c.track) as name, count(r) as races
+            from Race r join r.participants u join r.card c
+            where u.id = :userId
+            group by c.id, c.location, c.track
+            order by count(r) desc, c.id
+            """)
+    List<UsageView> findCardUsageByParticipant(@Param("userId") Long userId, Pageable limit);
+
+    interface RaceStatusCountView {
+        Long getPartyId();
+        java.time.LocalDate getDay();
+        RaceStatus getStatus();
+        Long getTotal();
+    }
+
+    // Everything RaceCounters needs in one pass: overall, per-party and per-day totals are summed from these groups
+    @Query("""
+            select p.id as partyId, cast(r.createdAt as LocalDate) as day, r.status as status, count(r) as total
+            from Race r left join r.party p
+            group by p.id, cast(r.createdAt as LocalDate), r.status
+            """)
+    List<RaceStatusCountView> countByPartyDayAndStatus();
+
+    // Keyset-paginated summaries (newest first): pass the last id of the previous page as the cursor
+    // and a Pageable of (0, limit). No collection is fetched, the participant count is a subquery.
+    @Query("""
+            select new com.packt.blurApp.dto.Race.RaceSummaryDto(
+                r.id, p.id, r.status, r.attributionType, c.id, c.location, c.track,
+                cr.id, cr.userName, size(r.participants), r.createdAt, r.startedAt, r.completedAt)
+            from Race r
+            left join r.party p
+            left join r.card c
+            left join r.creator cr
+            where r.id < :cursor
+            order by r.id desc
+            """)
+    List<RaceSummaryDto> findSummaries(@Param("cursor") Long cursor, Pageable limit);
+
+    @Query("""
+            select new com.packt.blurApp.dto.Race.RaceSummaryDto(
+                r.id, p.id, r.status, r.attributionType, c.id, c.location, c.track,
+                cr.id, cr.userName, size(r.participants), r.createdAt, r.startedAt, r.completedAt)
+            from Race r
+            left join r.party p
+            left join r.card c
+            left join r.creator cr
+            where p.id = :partyId and r.id < :cursor
+            order by r.id desc
+            """)
+    List<RaceSummaryDto> findSummariesByPartyId(@Param("partyId") Long partyId, @Param("cursor") Long cursor, Pageable limit);
+
+    @Query("""
+            select new com.packt.blurApp.dto.Race.RaceSummaryDto(
+                r.id, p.id, r.status, r.attributionType, c.id, c.location, c.track,
+                cr.id, cr.userName, size(r.participants), r.createdAt, r.startedAt, r.completedAt)
+            from Race r
+            left join r.party p
+            left join r.card c
+            left join r.creator cr
+            where r.status = :status and r.id < :cursor
+            order by r.id desc
+            """)
+    List<RaceSummaryDto> findSummariesByStatus(@Param("status") RaceStatus status, @Param("cursor") Long cursor, Pageable limit);
+
+    // Most recent card ids of a party (newest first), served by the (party_id, id) index; seeds CardRotationEngine
+    @Query("select r.card.id from Race r where r.party.id = :partyId order by r.id desc")
+    List<Long> findRecentCardIdsByPartyId(@Param("partyId") Long partyId, Pageable limit);
 }
@@ -0,0 +1,14 @@
+package com.packt.blurApp.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.packt.blurApp.model.RatingHistory;
+
+@Repository
+public interface RatingHistoryRepository extends JpaRepository<RatingHistory, Long> {
+    List<RatingHistory> findByUserIdOrderByIdDesc(Long userId, Pageable limit);
+}
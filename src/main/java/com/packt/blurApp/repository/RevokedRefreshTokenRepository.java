@@ -0,0 +1,30 @@
+package com.packt.blurApp.repository;
+
+import com.packt.blurApp.model.RevokedRefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RevokedRefreshTokenRepository extends JpaRepository<RevokedRefreshToken, String> {
+
+    // Returns 0 when the jti was already revoked: the check and the revocation are one atomic statement
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO revoked_refresh_token (jti, user_id, expires_at, revoked_at) " +
+                   "VALUES (:jti, :userId, :expiresAt, now()) ON CONFLICT (jti) DO NOTHING",
+           nativeQuery = true)
+    int revoke(@Param("jti") String jti, @Param("userId") Long userId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM revoked_refresh_token WHERE jti IN (" +
+                   "SELECT jti FROM revoked_refresh_token WHERE expires_at < :now LIMIT :limit)",
+           nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
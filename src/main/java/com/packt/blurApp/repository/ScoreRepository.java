@@ -3,12 +3,15 @@ package com.packt.blurApp.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.packt.blurApp.dto.Statistics.UserRaceResultDto;
 import com.packt.blurApp.model.Score;
 
 @Repository
@@ -24,6 +27,110 @@ public interface ScoreRepository extends JpaRepository<Score, Long> {
     List<Score> findByRaceId(Long raceId);
     
     boolean existsByRaceIdAndUserId(Long raceId, Long userId);
+
+    boolean existsByRaceId(Long raceId);
+
+    interface ScoreUpsertView {
+        Long getId();
+        Boolean getInserted();
+    }
+
+    interface ScoreValueView {
+        Integer getRank();
+        Integer getValue();
+    }
+
+    // Locks the user's score in the race until the transaction ends. An overwrite reads the values it is
+    // about to replace here: a value read by the upsert itself comes from the statement's snapshot, which
+    // misses a row inserted or replaced concurrently that ON CONFLICT then waits for and updates anyway.
+    @Query(value = """
+            SELECT rank AS rank, value AS value FROM score
+            WHERE race_id = :raceId AND user_id = :userId
+            FOR UPDATE
+            """, nativeQuery = true)
+    Optional<ScoreValueView> lockRankAndValue(@Param("raceId") Long raceId, @Param("userId") Long userId);
+
+    // Inserts the score, or replaces the existing one of the user when overwrite is true; returns no row
+    // when the score exists and overwrite is false. Points (participants - rank + 1) are computed in the
+    // same statement; xmax = 0 tells a fresh insert from an update.
+    @Transactional
+    @Query(value = """
+            INSERT INTO score (id, race_id, user_id, submitted_by_id, rank, value, submitted_at)
+            SELECT nextval('score_seq'), :raceId, :userId, :submittedById, :rank,
+                   (SELECT COUNT(*) FROM race_participants rp WHERE rp.race_id = :raceId) - :rank + 1, now()
+            ON CONFLICT (race_id, user_id) DO UPDATE
+                SET rank = EXCLUDED.rank,
+                    value = EXCLUDED.value,
+                    submitted_by_id = EXCLUDED.submitted_by_id,
+                    submitted_at = EXCLUDED.submitted_at
+                WHERE CAST(:overwrite AS boolean)
+            RETURNING id AS id, (xmax = 0) AS inserted
+            """, nativeQuery = true)
+    Optional<ScoreUpsertView> upsert(
+            @Param("raceId") Long raceId,
+            @Param("userId") Long userId,
+            @Param("submittedById") Long submittedById,
+            @Param("rank") int rank,
+            @Param("overwrite") boolean overwrite);
+
+    interface StandingView {
+        Long getUserId();
+        String getUserName();
+        Long getPartyId();
+        Long getPoints();
+        Long getWins();
+        Long getPodiums();
+        Long getRacesPlayed();
+    }
+
+    interface UserScoreStatsView {
+        Long getRacesScored();
+        Double getAverageRank();
+        Integer getBestRank();
+        Long getWins();
+        Long getPodiums();
+        Long getPoints();
+    }
+
+    @Query("""
+            select count(s) as racesScored, avg(s.rank) as averageRank, min(s.rank) as bestRank,
+                   coalesce(sum(case when s.rank = 1 then 1 else 0 end), 0) as wins,
+                   coalesce(sum(case when s.rank between 1 and 3 then 1 else 0 end), 0) as podiums,
+                   coalesce(sum(s.value), 0) as points
+            from Score s
+            where s.user.id = :userId
+            """)
+    UserScoreStatsView aggregateForUser(@Param("userId") Long userId);
+
+    // Newest first; the race id is the keyset cursor
+    @Query("""
+            select new com.packt.blurApp.dto.Statistics.UserRaceResultDto(
+                r.id, p.id, r.status, r.completedAt, s.rank, s.value, c.location, c.track)
+            from Score s join s.race r left join r.party p left join r.card c
+            where s.user.id = :userId and r.id < :cursor
+            order by r.id desc
+            """)
+    List<UserRaceResultDto> findResultsByUserId(@Param("userId") Long userId, @Param("cursor") Long cursor, Pageable limit);
+
+    // Per user and party totals; LeaderboardService sums the parties for the all-time board
+    @Query("""
+            select u.id as userId, u.userName as userName, p.id as partyId,
+                   coalesce(sum(s.value), 0) as points,
+                   sum(case when s.rank = 1 then 1 else 0 end) as wins,
+                   sum(case when s.rank between 1 and 3 then 1 else 0 end) as podiums,
+                   count(s) as racesPlayed
+            from Score s join s.user u join s.race r left join r.party p
+            group by u.id, u.userName, p.id
+            """)
+    List<StandingView> aggregateStandings();
+
+    // Id of the current transaction, assigned now if it has none yet; tags ScoreChangedEvent
+    @Query(value = "SELECT CAST(CAST(pg_current_xact_id() AS text) AS bigint)", nativeQuery = true)
+    Long currentTransactionId();
+
+    // Snapshot of the current transaction as "xmin:xmax:xip,..."; see LeaderboardService.rebuild
+    @Query(value = "SELECT CAST(pg_current_snapshot() AS text)", nativeQuery = true)
+    String currentSnapshot();
     
     @Override
     @EntityGraph(attributePaths = {"user", "submittedBy", "race"})
@@ -1,8 +1,12 @@
 package com.packt.blurApp.repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.packt.blurApp.model.User;
@@ -23,4 +27,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     java.util.List<User> findAllByRolesContains(com.packt.blurApp.model.Role role);
 
+    // Single-column lookup used to validate stateless tokens without loading roles
+    @Query("SELECT u.userName FROM User u WHERE u.id = :id")
+    Optional<String> findUserNameById(@Param("id") Long id);
+
+    @Query("SELECT COALESCE(u.authVersion, 0) FROM User u WHERE u.id = :id")
+    Optional<Long> findAuthVersionById(@Param("id") Long id);
+
+    // Invalidate stateless tokens of every user holding the role (new and legacy assignment)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE app_user SET auth_version = COALESCE(auth_version, 0) + 1 " +
+                   "WHERE role_id = :roleId OR id IN (SELECT ur.user_id FROM user_roles ur WHERE ur.role_id = :roleId)",
+           nativeQuery = true)
+    int bumpAuthVersionForRole(@Param("roleId") Long roleId);
+
+    interface UserRoleView {
+        Long getId();
+        String getRoleName();
+    }
+
+    // Existence and legacy role of several users in one query, without loading the entities
+    @Query("SELECT u.id AS id, r.name AS roleName FROM User u LEFT JOIN u.role r WHERE u.id IN :ids")
+    java.util.List<UserRoleView> findRoleViewsByIdIn(@Param("ids") Collection<Long> ids);
+
 }
@@ -2,7 +2,7 @@ package com.packt.blurApp.service.car;
 
 import com.packt.blurApp.exceptions.ResourceNotFoundExceptions;
 import com.packt.blurApp.model.Car;
-import com.packt.blurApp.repository.CarRepository;
+import com.packt.blurApp.service.catalog.GameCatalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -11,16 +11,16 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 public class CarService implements ICarService {
-    private final CarRepository carRepository;
+    private final GameCatalog gameCatalog;
 
     @Override
     public List<Car> getAllCars() {
-        return carRepository.findAll();
+        return gameCatalog.getCars();
     }
 
     @Override
     public Car getCarById(Long id) {
-        return carRepository.findById(id)
+        return gameCatalog.findCar(id)
                 .orElseThrow(() -> new ResourceNotFoundExceptions("Car not found with ID: " + id));
     }
 }
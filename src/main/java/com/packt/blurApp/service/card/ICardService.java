@@ -2,10 +2,12 @@ package com.packt.blurApp.service.card;
 
 import com.packt.blurApp.model.Card;
 import com.packt.blurApp.model.Race;
-import com.packt.blurApp.repository.CardRepository;
 import com.packt.blurApp.repository.RaceRepository;
+import com.packt.blurApp.service.catalog.GameCatalog;
+import com.packt.blurApp.service.race.CardRotationEngine;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -15,46 +17,28 @@ import java.util.stream.Collectors;
 public class ICardService implements CardService {
 
 
-    private final CardRepository cardRepository;
+    private final GameCatalog gameCatalog;
+    private final CardRotationEngine cardRotationEngine;
     private final RaceRepository raceRepository;
 
+    @Transactional
     public Card choisirCarteAleatoire(long raceId) {
-        List<Card> cards = cardRepository.findAll();
-        if (cards.isEmpty()) {
+        if (gameCatalog.getCards().isEmpty()) {
             throw new IllegalStateException("Aucune carte disponible.");
         }
-        // Récupérer les cartes déjà attribuées aux courses actives
-        List<Race> allRaces = raceRepository.findAll();
-        Set<Long> usedCardIds = new HashSet<>();
-        for (Race r : allRaces) {
-            if (r.getCard() != null) {
-                usedCardIds.add(r.getCard().getId());
-            }
-        }
-        // Filtrer les cartes non utilisées
-        List<Card> availableCards = new ArrayList<>();
-        for (Card c : cards) {
-            if (!usedCardIds.contains(c.getId())) {
-                availableCards.add(c);
-            }
-        }
-        Random random = new Random();
-        Card card;
-        if (!availableCards.isEmpty()) {
-            card = availableCards.get(random.nextInt(availableCards.size()));
-        } else {
-            // Toutes les cartes sont déjà utilisées, on autorise les doublons
-            card = cards.get(random.nextInt(cards.size()));
-        }
         Race race = raceRepository.findById(raceId).orElseThrow(() -> new RuntimeException("Race not found"));
-        race.setCard(card);
+        // Éviter les dernières cartes jouées par la même partie
+        Long partyId = race.getParty() != null ? race.getParty().getId() : null;
+        Long currentCardId = race.getCard() != null ? race.getCard().getId() : null;
+        Card card = cardRotationEngine.nextCard(partyId, currentCardId);
+        race.setCard(gameCatalog.cardReference(card.getId()));
         raceRepository.save(race);
         return card;
     }
 
     //Lister toutes les cartes disponibles
     public List<Card> getAllCards() {
-        return cardRepository.findAll();
+        return gameCatalog.getCards();
     }
 
     // Convertir une Carte en DTO (Data Transfer Object) pour ne renvoyer que location et track
@@ -0,0 +1,237 @@
+package com.packt.blurApp.service.catalog;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongPredicate;
+import java.util.function.ToLongFunction;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.packt.blurApp.event.CatalogChangedEvent;
+import com.packt.blurApp.model.Car;
+import com.packt.blurApp.model.Card;
+import com.packt.blurApp.model.RaceParameters;
+import com.packt.blurApp.repository.CarRepository;
+import com.packt.blurApp.repository.CardRepository;
+import com.packt.blurApp.repository.RaceParametersRepository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Immutable in-memory copy of the reference data (cars, cards and race parameters).
+ * The snapshot is rebuilt and swapped as a whole on refresh, so readers never see a partial catalog.
+ * Entries are detached copies and must not be attached to an entity: use the {@code *Reference}
+ * methods to obtain managed references for associations.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameCatalog {
+    private final CarRepository carRepository;
+    private final CardRepository cardRepository;
+    private final RaceParametersRepository raceParametersRepository;
+    private final EntityManager entityManager;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        refresh();
+    }
+
+    public void refresh() {
+        Car[] cars = carRepository.findAll().stream()
+                .map(c -> new Car(c.getId(), c.getName(), c.getImageUrl()))
+                .toArray(Car[]::new);
+        Card[] cards = cardRepository.findAll().stream()
+                .map(c -> new Card(c.getId(), c.getLocation(), c.getTrack(), c.getImageUrl()))
+                .toArray(Card[]::new);
+        RaceParameters[] parameters = raceParametersRepository.findAll().stream()
+                .map(p -> new RaceParameters(p.getId(), p.getName(), p.getIsActive(), p.getDownloadUrl()))
+                .toArray(RaceParameters[]::new);
+        snapshot.set(new Snapshot(cars, cards, parameters));
+        log.info("Game catalog loaded: {} cars, {} cards, {} race parameters", cars.length, cards.length, parameters.length);
+    }
+
+    public List<Car> getCars() {
+        return current().carList;
+    }
+
+    public List<Card> getCards() {
+        return current().cardList;
+    }
+
+    public List<RaceParameters> getRaceParameters() {
+        return current().parameterList;
+    }
+
+    public Optional<Car> findCar(Long id) {
+        Snapshot s = current();
+        return Optional.ofNullable(lookup(s.cars, s.carIndex, id));
+    }
+
+    public Optional<Card> findCard(Long id) {
+        Snapshot s = current();
+        return Optional.ofNullable(lookup(s.cards, s.cardIndex, id));
+    }
+
+    public Optional<RaceParameters> findRaceParameter(Long id) {
+        Snapshot s = current();
+        return Optional.ofNullable(lookup(s.parameters, s.parameterIndex, id));
+    }
+
+    /**
+     * Uniformly random card other than {@code excludedId} (unless it is the only one), or null when empty.
+     */
+    public Card randomCard(Long excludedId) {
+        Snapshot s = current();
+        return randomExcluding(s.cards, s.cardIndex, excludedId);
+    }
+
+    /**
+     * Uniformly random card whose id is not rejected by {@code excluded}, or null when every card is excluded.
+     * Meant for small exclusion sets: a few random draws usually succeed, with a full scan as the fallback.
+     */
+    public Card randomCard(LongPredicate excluded) {
+        Card[] cards = current().cards;
+        if (cards.length == 0) {
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < 8; attempt++) {
+            Card card = cards[random.nextInt(cards.length)];
+            if (!excluded.test(card.getId())) {
+                return card;
+            }
+        }
+        int[] candidates = new int[cards.length];
+        int count = 0;
+        for (int i = 0; i < cards.length; i++) {
+            if (!excluded.test(cards[i].getId())) {
+                candidates[count++] = i;
+            }
+        }
+        return count == 0 ? null : cards[candidates[random.nextInt(count)]];
+    }
+
+    /**
+     * Uniformly random car other than {@code excludedId} (unless it is the only one), or null when empty.
+     */
+    public Car randomCar(Long excludedId) {
+        Snapshot s = current();
+        return randomExcluding(s.cars, s.carIndex, excludedId);
+    }
+
+    /**
+     * A random subset of the race parameters: the size is uniform in [0, n], then a partial shuffle picks the items.
+     */
+    public List<RaceParameters> randomRaceParameters() {
+        RaceParameters[] all = current().parameters;
+        if (all.length == 0) {
+            return List.of();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int count = random.nextInt(all.length + 1);
+        RaceParameters[] copy = all.clone();
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(copy.length - i);
+            RaceParameters tmp = copy[i];
+            copy[i] = copy[j];
+            copy[j] = tmp;
+        }
+        return List.of(copy).subList(0, count);
+    }
+
+    public Car carReference(Long id) {
+        return entityManager.getReference(Car.class, id);
+    }
+
+    public Card cardReference(Long id) {
+        return entityManager.getReference(Card.class, id);
+    }
+
+    public RaceParameters raceParametersReference(Long id) {
+        return entityManager.getReference(RaceParameters.class, id);
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot.get();
+        if (s == null) {
+            // Only reachable if something asks before the application is ready
+            synchronized (this) {
+                s = snapshot.get();
+                if (s == null) {
+                    refresh();
+                    s = snapshot.get();
+                }
+            }
+        }
+        return s;
+    }
+
+    private static <T> T lookup(T[] items, Map<Long, Integer> index, Long id) {
+        Integer position = id == null ? null : index.get(id);
+        return position == null ? null : items[position];
+    }
+
+    private static <T> T randomExcluding(T[] items, Map<Long, Integer> index, Long excludedId) {
+        if (items.length == 0) {
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer excluded = excludedId == null ? null : index.get(excludedId);
+        if (excluded == null || items.length == 1) {
+            return items[random.nextInt(items.length)];
+        }
+        // Draw from n - 1 slots and skip over the excluded one
+        int position = random.nextInt(items.length - 1);
+        return items[position >= excluded ? position + 1 : position];
+    }
+
+    private static final class Snapshot {
+        private final Car[] cars;
+        private final Card[] cards;
+        private final RaceParameters[] parameters;
+        private final List<Car> carList;
+        private final List<Card> cardList;
+        private final List<RaceParameters> parameterList;
+        private final Map<Long, Integer> carIndex;
+        private final Map<Long, Integer> cardIndex;
+        private final Map<Long, Integer> parameterIndex;
+
+        private Snapshot(Car[] cars, Card[] cards, RaceParameters[] parameters) {
+            this.cars = cars;
+            this.cards = cards;
+            this.parameters = parameters;
+            this.carList = List.of(cars);
+            this.cardList = List.of(cards);
+            this.parameterList = List.of(parameters);
+            this.carIndex = index(cars, Car::getId);
+            this.cardIndex = index(cards, Card::getId);
+            this.parameterIndex = index(parameters, RaceParameters::getId);
+        }
+
+        private static <T> Map<Long, Integer> index(T[] items, ToLongFunction<T> id) {
+            Map<Long, Integer> index = new HashMap<>(items.length * 2);
+            for (int i = 0; i < items.length; i++) {
+                index.put(id.applyAsLong(items[i]), i);
+            }
+            return Map.copyOf(index);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.packt.blurApp.service.leaderboard;
+
+import com.packt.blurApp.dto.Leaderboard.LeaderboardDto;
+import com.packt.blurApp.dto.Leaderboard.LeaderboardEntryDto;
+
+public interface ILeaderboardService {
+    LeaderboardDto getTop(int limit);
+
+    LeaderboardDto getPartyTop(Long partyId, int limit);
+
+    LeaderboardEntryDto getUserStanding(Long userId);
+
+    LeaderboardEntryDto getUserPartyStanding(Long partyId, Long userId);
+
+    void rebuild();
+}
@@ -0,0 +1,327 @@
+package com.packt.blurApp.service.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.packt.blurApp.dto.Leaderboard.LeaderboardDto;
+import com.packt.blurApp.dto.Leaderboard.LeaderboardEntryDto;
+import com.packt.blurApp.event.ScoreChangedEvent;
+import com.packt.blurApp.exceptions.ResourceNotFoundExceptions;
+import com.packt.blurApp.repository.ScoreRepository;
+import com.packt.blurApp.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * All-time and per-party standings (points, wins, podiums, races played) kept in memory.
+ * Built from one aggregate query at startup, then moved by score deltas once their transaction commits.
+ * Each board keeps its standings in a skip list ordered like the leaderboard, updated in O(log n) per
+ * delta, so a top-N read walks the first N entries and a user's rank counts the standings ahead of theirs;
+ * nothing is sorted on the read path.
+ *
+ * <p>A rebuild reads the aggregate in a repeatable-read transaction and keeps that transaction's snapshot.
+ * Each delta names the transaction that wrote it: changes the snapshot already counts are skipped, and the
+ * deltas that arrive while the query runs are replayed onto the new boards, so none is lost or counted twice.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService implements ILeaderboardService {
+    private static final int POINTS = 0;
+    private static final int WINS = 1;
+    private static final int PODIUMS = 2;
+    private static final int RACES = 3;
+
+    // Most points first, then wins and podiums; the user id keeps tied players apart in a stable order
+    private static final Comparator<Standing> ORDER = Comparator
+            .comparingLong((Standing s) -> -s.points())
+            .thenComparingLong(s -> -s.wins())
+            .thenComparingLong(s -> -s.podiums())
+            .thenComparingLong(Standing::userId);
+
+    private final ScoreRepository scoreRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${leaderboard.max-limit:100}")
+    private int maxLimit;
+
+    private final AtomicReference<Boards> boards = new AtomicReference<>();
+    private final Map<Long, String> userNames = new ConcurrentHashMap<>();
+    private final Object rebuildLock = new Object();
+    private final Object pendingLock = new Object();
+    // Deltas received while a rebuild is loading, guarded by pendingLock; null when no rebuild runs
+    private List<ScoreChangedEvent> pending;
+    private TransactionTemplate snapshotTransaction;
+
+    @PostConstruct
+    void init() {
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (pendingLock) {
+                pending = new ArrayList<>();
+            }
+            Boards rebuilt;
+            try {
+                rebuilt = snapshotTransaction.execute(status -> load());
+            } catch (RuntimeException e) {
+                synchronized (pendingLock) {
+                    pending = null;
+                }
+                throw e;
+            }
+            List<ScoreChangedEvent> missed;
+            synchronized (pendingLock) {
+                boards.set(rebuilt);
+                missed = pending;
+                pending = null;
+            }
+            for (ScoreChangedEvent event : missed) {
+                apply(rebuilt, event);
+            }
+            log.info("Leaderboards rebuilt: {} players, {} parties, {} concurrent changes replayed",
+                    rebuilt.allTime.size(), rebuilt.byParty.size(), missed.size());
+        }
+    }
+
+    // Runs in the snapshot transaction: the snapshot is read first so it is the one the aggregate sees
+    private Boards load() {
+        Boards loaded = new Boards(TransactionSnapshot.parse(scoreRepository.currentSnapshot()));
+        for (ScoreRepository.StandingView view : scoreRepository.aggregateStandings()) {
+            userNames.put(view.getUserId(), view.getUserName());
+            long[] delta = {view.getPoints(), view.getWins(), view.getPodiums(), view.getRacesPlayed()};
+            loaded.allTime.apply(view.getUserId(), delta);
+            if (view.getPartyId() != null) {
+                loaded.party(view.getPartyId()).apply(view.getUserId(), delta);
+            }
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onScoreChanged(ScoreChangedEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+        Boards current;
+        synchronized (pendingLock) {
+            if (pending != null) {
+                // Whether the loading snapshot counts this change is only known once it is taken
+                pending.add(event);
+            }
+            current = boards.get();
+        }
+        if (!userNames.containsKey(event.userId())) {
+            userRepository.findUserNameById(event.userId()).ifPresent(name -> userNames.put(event.userId(), name));
+        }
+        if (current != null) {
+            // Boards about to be replaced are still updated so reads stay current until the swap
+            apply(current, event);
+        }
+        // Not built yet and no rebuild running: the first read rebuilds from the database, which has this change
+    }
+
+    private static void apply(Boards target, ScoreChangedEvent event) {
+        if (target.snapshot.includes(event.transactionId())) {
+            return;
+        }
+        long[] delta = new long[4];
+        if (event.previousPoints() != null) {
+            accumulate(delta, event.previousRank(), event.previousPoints(), -1);
+        }
+        if (event.points() != null) {
+            accumulate(delta, event.rank(), event.points(), 1);
+        }
+        target.allTime.apply(event.userId(), delta);
+        if (event.partyId() != null) {
+            target.party(event.partyId()).apply(event.userId(), delta);
+        }
+    }
+
+    @Override
+    public LeaderboardDto getTop(int limit) {
+        return top(null, current().allTime, limit);
+    }
+
+    @Override
+    public LeaderboardDto getPartyTop(Long partyId, int limit) {
+        Board board = current().byParty.get(partyId);
+        return board != null ? top(partyId, board, limit) : new LeaderboardDto(partyId, 0, List.of());
+    }
+
+    @Override
+    public LeaderboardEntryDto getUserStanding(Long userId) {
+        return standing(current().allTime, userId, "User " + userId + " has no score yet");
+    }
+
+    @Override
+    public LeaderboardEntryDto getUserPartyStanding(Long partyId, Long userId) {
+        Board board = current().byParty.get(partyId);
+        if (board == null) {
+            throw new ResourceNotFoundExceptions("No scores recorded for party " + partyId);
+        }
+        return standing(board, userId, "User " + userId + " has no score in party " + partyId);
+    }
+
+    private LeaderboardDto top(Long partyId, Board board, int limit) {
+        int size = Math.min(Math.max(limit, 1), maxLimit);
+        List<LeaderboardEntryDto> entries = new ArrayList<>(size);
+        Standing previous = null;
+        int rank = 0;
+        for (Standing standing : board.order) {
+            if (entries.size() == size) {
+                break;
+            }
+            if (previous == null || !standing.tiedWith(previous)) {
+                rank = entries.size() + 1;
+            }
+            entries.add(entry(rank, standing));
+            previous = standing;
+        }
+        return new LeaderboardDto(partyId, board.size(), entries);
+    }
+
+    private LeaderboardEntryDto standing(Board board, Long userId, String notFoundMessage) {
+        Standing standing = board.byUser.get(userId);
+        if (standing == null) {
+            throw new ResourceNotFoundExceptions(notFoundMessage);
+        }
+        return entry(board.rankOf(standing), standing);
+    }
+
+    private LeaderboardEntryDto entry(int rank, Standing standing) {
+        return new LeaderboardEntryDto(rank, standing.userId(), userNames.get(standing.userId()),
+                standing.points(), standing.wins(), standing.podiums(), standing.races());
+    }
+
+    private static void accumulate(long[] delta, Integer rank, int points, int sign) {
+        delta[POINTS] += (long) sign * points;
+        if (rank != null && rank == 1) {
+            delta[WINS] += sign;
+        }
+        if (rank != null && rank >= 1 && rank <= 3) {
+            delta[PODIUMS] += sign;
+        }
+        delta[RACES] += sign;
+    }
+
+    private Boards current() {
+        Boards current = boards.get();
+        if (current == null) {
+            synchronized (rebuildLock) {
+                if (boards.get() == null) {
+                    rebuild();
+                }
+            }
+            current = boards.get();
+        }
+        return current;
+    }
+
+    private static final class Boards {
+        private final TransactionSnapshot snapshot;
+        private final Board allTime = new Board();
+        private final Map<Long, Board> byParty = new ConcurrentHashMap<>();
+
+        Boards(TransactionSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        Board party(Long partyId) {
+            return byParty.computeIfAbsent(partyId, id -> new Board());
+        }
+    }
+
+    private record Standing(long userId, long points, long wins, long podiums, long races) {
+
+        // Same points, wins and podiums: the players share a rank
+        boolean tiedWith(Standing other) {
+            return points == other.points && wins == other.wins && podiums == other.podiums;
+        }
+    }
+
+    private static final class Board {
+        private final Map<Long, Standing> byUser = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<Standing> order = new ConcurrentSkipListSet<>(ORDER);
+
+        // Writers are serialized by the board's monitor; readers go straight to the concurrent structures
+        synchronized void apply(Long userId, long[] delta) {
+            Standing previous = byUser.get(userId);
+            long[] total = previous == null
+                    ? new long[4]
+                    : new long[]{previous.points(), previous.wins(), previous.podiums(), previous.races()};
+            for (int i = 0; i < total.length; i++) {
+                total[i] += delta[i];
+            }
+            if (previous != null) {
+                order.remove(previous);
+            }
+            if (total[RACES] <= 0) {
+                byUser.remove(userId);
+                return;
+            }
+            Standing next = new Standing(userId, total[POINTS], total[WINS], total[PODIUMS], total[RACES]);
+            order.add(next);
+            byUser.put(userId, next);
+        }
+
+        int size() {
+            return byUser.size();
+        }
+
+        // 1 + the players strictly ahead: the first possible standing with the same score bounds them
+        int rankOf(Standing standing) {
+            Standing firstTied = new Standing(Long.MIN_VALUE, standing.points(), standing.wins(), standing.podiums(), 0);
+            return 1 + order.headSet(firstTied).size();
+        }
+    }
+
+    /**
+     * A PostgreSQL snapshot: transactions below {@code xmin} had finished when it was taken, those from
+     * {@code xmax} on had not started, and those in between are visible unless listed as in progress.
+     */
+    private record TransactionSnapshot(long xmin, long xmax, long[] inProgress) {
+
+        static TransactionSnapshot parse(String text) {
+            String[] parts = text.split(":", -1);
+            long[] inProgress = parts[2].isEmpty()
+                    ? new long[0]
+                    : Arrays.stream(parts[2].split(",")).mapToLong(Long::parseLong).sorted().toArray();
+            return new TransactionSnapshot(Long.parseLong(parts[0]), Long.parseLong(parts[1]), inProgress);
+        }
+
+        // Whether a committed transaction's writes are counted in this snapshot; unknown ids never are
+        boolean includes(Long transactionId) {
+            if (transactionId == null || transactionId >= xmax) {
+                return false;
+            }
+            return transactionId < xmin || Arrays.binarySearch(inProgress, transactionId) < 0;
+        }
+    }
+}
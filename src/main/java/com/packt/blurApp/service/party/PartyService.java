@@ -524,8 +524,7 @@ public class PartyService implements IPartyService {
      */
     @Transactional(readOnly = true)
     public PartyRole getCurrentUserRole(Long partyId) {
-        User currentUser = userService.getCurrentUser();
-        return partyMemberRepository.findByPartyIdAndUserId(partyId, currentUser.getId())
+        return partyMemberRepository.findByPartyIdAndUserId(partyId, userService.getCurrentUserId())
                 .map(PartyMember::getRole)
                 .orElse(null);
     }
@@ -0,0 +1,243 @@
+package com.packt.blurApp.service.race;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.packt.blurApp.model.Attribution;
+import com.packt.blurApp.model.Car;
+import com.packt.blurApp.repository.AttributionRepository;
+import com.packt.blurApp.service.catalog.GameCatalog;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands out cars so that drivers rotate through the catalog instead of getting independent random picks.
+ * Keeps per-user and per-party car usage counters in memory, seeded from attribution with one grouped
+ * query for all users not seen yet, and updated from the attributions a race creates.
+ *
+ * <p>Cars within a race are distinct while the catalog lasts. Free cars sit in a min-heap by party usage.
+ * Each participant looks at the free cars in that order, stopping at the first car they never drove and
+ * after at most {@code race.car-allocation.max-scan} cars, and gets the one of those they drove the least
+ * and least recently. A race therefore costs O(participants x maxScan x log cars). A regular who has
+ * driven every car gets the best of the maxScan least party-used free cars, not of the whole catalog.
+ *
+ * <p>Counters change only once the allocating transaction commits; attributions deleted by a re-roll are
+ * subtracted again. Their recency (last attribution id) is kept, so a re-rolled car still counts as
+ * recently driven.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CarAllocationEngine {
+    private final AttributionRepository attributionRepository;
+    private final GameCatalog gameCatalog;
+
+    @Value("${race.car-allocation.max-users:100000}")
+    private long maxUsers;
+
+    @Value("${race.car-allocation.max-parties:10000}")
+    private long maxParties;
+
+    @Value("${race.car-allocation.max-scan:16}")
+    private int maxScan;
+
+    private Cache<Long, CarUsage> userUsage;
+    private Cache<Long, CarUsage> partyUsage;
+
+    @PostConstruct
+    void init() {
+        this.userUsage = Caffeine.newBuilder().maximumSize(maxUsers).build();
+        this.partyUsage = Caffeine.newBuilder().maximumSize(maxParties).build();
+    }
+
+    /**
+     * Chooses one car per participant, in the order of {@code userIds}.
+     * Returns an empty list when the catalog has no cars.
+     */
+    public List<Car> allocate(Long partyId, List<Long> userIds) {
+        List<Car> cars = gameCatalog.getCars();
+        if (cars.isEmpty() || userIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, CarUsage> users = userUsage.getAll(userIds, this::loadUsers);
+        CarUsage party = partyUsageOf(partyId);
+
+        List<Car> allocation = new ArrayList<>(userIds.size());
+        synchronized (this) {
+            PriorityQueue<Slot> free = new PriorityQueue<>();
+            List<Slot> polled = new ArrayList<>();
+            for (Long userId : userIds) {
+                if (free.isEmpty()) {
+                    // More participants than cars: start another round over the whole catalog
+                    fill(free, cars, party, null);
+                }
+                CarUsage usage = users.get(userId);
+                Slot best = null;
+                while (!free.isEmpty() && polled.size() < Math.max(maxScan, 1)) {
+                    Slot slot = free.poll();
+                    polled.add(slot);
+                    if (best == null || usage.compare(slot.car.getId(), best.car.getId()) < 0) {
+                        best = slot;
+                    }
+                    if (usage.neverDriven(slot.car.getId())) {
+                        // Never driven by this user, and the heap already ordered it by party usage
+                        break;
+                    }
+                }
+                for (Slot slot : polled) {
+                    if (slot != best) {
+                        free.add(slot);
+                    }
+                }
+                polled.clear();
+                allocation.add(best.car);
+            }
+        }
+        return allocation;
+    }
+
+    /**
+     * Chooses the car a whole race shares: the one the party has used the least, other than {@code excludedCarId}.
+     * Returns null when the catalog has no other car.
+     */
+    public Car allocateShared(Long partyId, Long excludedCarId) {
+        List<Car> cars = gameCatalog.getCars();
+        CarUsage party = partyUsageOf(partyId);
+        synchronized (this) {
+            PriorityQueue<Slot> free = new PriorityQueue<>();
+            fill(free, cars, party, excludedCarId);
+            Slot best = free.poll();
+            return best != null ? best.car : gameCatalog.randomCar(null);
+        }
+    }
+
+    /**
+     * Counts saved attributions (they must have ids) towards the usage of their user and party
+     * once the transaction commits.
+     */
+    public void record(Long partyId, Collection<Attribution> attributions) {
+        apply(partyId, attributions, 1);
+    }
+
+    /**
+     * Takes attributions that are about to be deleted (a re-roll of the race's cars) back out of the
+     * counters once the transaction commits.
+     */
+    public void release(Long partyId, Collection<Attribution> attributions) {
+        apply(partyId, attributions, -1);
+    }
+
+    private void apply(Long partyId, Collection<Attribution> attributions, int uses) {
+        // Read the ids now: the entities may be deleted or detached by the time the transaction commits
+        List<long[]> changes = new ArrayList<>(attributions.size());
+        for (Attribution attribution : attributions) {
+            if (attribution.getCar() == null || attribution.getId() == null) {
+                continue;
+            }
+            Long userId = attribution.getUser() != null ? attribution.getUser().getId() : null;
+            changes.add(new long[]{attribution.getCar().getId(), attribution.getId(), userId != null ? userId : -1});
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            CarUsage party = partyUsageOf(partyId);
+            synchronized (this) {
+                for (long[] change : changes) {
+                    if (party != null) {
+                        party.add(change[0], uses, change[1]);
+                    }
+                    CarUsage usage = change[2] >= 0 ? userUsage.getIfPresent(change[2]) : null;
+                    if (usage != null) {
+                        usage.add(change[0], uses, change[1]);
+                    }
+                }
+            }
+        });
+    }
+
+    private CarUsage partyUsageOf(Long partyId) {
+        return partyId == null ? null : partyUsage.get(partyId, this::loadParty);
+    }
+
+    private void fill(PriorityQueue<Slot> free, List<Car> cars, CarUsage party, Long excludedCarId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (Car car : cars) {
+            if (!car.getId().equals(excludedCarId)) {
+                free.add(new Slot(car, party == null ? 0 : party.uses(car.getId()), random.nextInt()));
+            }
+        }
+    }
+
+    private Map<Long, CarUsage> loadUsers(Set<? extends Long> userIds) {
+        Map<Long, CarUsage> loaded = new HashMap<>();
+        for (Long userId : userIds) {
+            loaded.put(userId, new CarUsage());
+        }
+        for (AttributionRepository.CarUsageView view : attributionRepository.findCarUsageByUserIds(List.copyOf(userIds))) {
+            loaded.get(view.getOwnerId()).add(view.getCarId(), view.getUses(), view.getLastAttributionId());
+        }
+        log.debug("Seeded car usage of {} users", userIds.size());
+        return loaded;
+    }
+
+    private CarUsage loadParty(Long partyId) {
+        CarUsage usage = new CarUsage();
+        for (AttributionRepository.CarUsageView view : attributionRepository.findCarUsageByPartyId(partyId)) {
+            usage.add(view.getCarId(), view.getUses(), view.getLastAttributionId());
+        }
+        return usage;
+    }
+
+    // Ordered by party usage, then by a random tiebreak so equally used cars are shuffled
+    private record Slot(Car car, long partyUses, int tiebreak) implements Comparable<Slot> {
+        @Override
+        public int compareTo(Slot other) {
+            int byUses = Long.compare(partyUses, other.partyUses);
+            return byUses != 0 ? byUses : Integer.compare(tiebreak, other.tiebreak);
+        }
+    }
+
+    // carId -> {uses, last attribution id}; mutated only while holding the engine's monitor
+    private static final class CarUsage {
+        private final Map<Long, long[]> byCar = new HashMap<>();
+
+        long uses(Long carId) {
+            long[] entry = byCar.get(carId);
+            return entry == null ? 0 : entry[0];
+        }
+
+        // A car whose uses were all released again still has an entry, for its recency
+        boolean neverDriven(Long carId) {
+            return !byCar.containsKey(carId);
+        }
+
+        // Fewer uses first, then the car driven longest ago
+        int compare(Long carId, Long otherCarId) {
+            long[] a = byCar.get(carId);
+            long[] b = byCar.get(otherCarId);
+            int byUses = Long.compare(a == null ? 0 : a[0], b == null ? 0 : b[0]);
+            return byUses != 0 ? byUses : Long.compare(a == null ? 0 : a[1], b == null ? 0 : b[1]);
+        }
+
+        void add(Long carId, long uses, Long lastAttributionId) {
+            long[] entry = byCar.computeIfAbsent(carId, id -> new long[2]);
+            // Released uses go back down to zero, but the entry and its recency stay
+            entry[0] = Math.max(0, entry[0] + uses);
+            entry[1] = Math.max(entry[1], lastAttributionId == null ? 0 : lastAttributionId);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.packt.blurApp.service.race;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.packt.blurApp.model.Card;
+import com.packt.blurApp.repository.RaceRepository;
+import com.packt.blurApp.service.catalog.GameCatalog;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Picks race cards so that a party does not replay any of its last K maps.
+ * Each party has a small ring of its most recent card ids, seeded on first use from one query on
+ * (party_id, id) and then kept up to date in memory; selection samples the catalog outside that ring.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CardRotationEngine {
+    private final RaceRepository raceRepository;
+    private final GameCatalog gameCatalog;
+
+    @Value("${race.card-rotation.recent-window:5}")
+    private int recentWindow;
+
+    @Value("${race.card-rotation.max-parties:10000}")
+    private long maxParties;
+
+    private Cache<Long, RecentCards> recentByParty;
+
+    @PostConstruct
+    void init() {
+        this.recentByParty = Caffeine.newBuilder()
+                .maximumSize(maxParties)
+                .expireAfterAccess(Duration.ofDays(1))
+                .build();
+    }
+
+    /**
+     * Chooses a card for a race of the party, avoiding its recent cards and {@code currentCardId}.
+     * Returns null only when the catalog is empty. Once the surrounding transaction commits, the card is
+     * recorded: as the party's newest card for a new race ({@code currentCardId} null), or in place of
+     * {@code currentCardId} when an existing race changes its card, so the ring keeps matching what
+     * {@link RaceRepository#findRecentCardIdsByPartyId} would return.
+     */
+    public Card nextCard(Long partyId, Long currentCardId) {
+        if (partyId == null) {
+            return gameCatalog.randomCard(currentCardId);
+        }
+        RecentCards recent = recentByParty.get(partyId, this::load);
+        Card card;
+        synchronized (recent) {
+            // With fewer cards than the window, only the most recent (cardCount - 1) are avoided
+            int window = Math.min(recentWindow, Math.max(gameCatalog.getCards().size() - 1, 0));
+            card = gameCatalog.randomCard(id -> id == (currentCardId == null ? Long.MIN_VALUE : currentCardId)
+                    || recent.containsInLast(id, window));
+        }
+        if (card == null) {
+            card = gameCatalog.randomCard(currentCardId);
+        }
+        if (card != null) {
+            Long cardId = card.getId();
+            // Rolled back races must not block their card
+            AfterCommit.run(() -> {
+                synchronized (recent) {
+                    if (currentCardId == null) {
+                        recent.push(cardId);
+                    } else {
+                        // A race older than the window changing its card leaves the ring as it is
+                        recent.replaceLatest(currentCardId, cardId);
+                    }
+                }
+            });
+        }
+        return card;
+    }
+
+    private RecentCards load(Long partyId) {
+        List<Long> newestFirst = raceRepository.findRecentCardIdsByPartyId(partyId, PageRequest.of(0, recentWindow));
+        RecentCards recent = new RecentCards(recentWindow);
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            recent.push(newestFirst.get(i));
+        }
+        log.debug("Seeded recent cards of party {} with {} entries", partyId, newestFirst.size());
+        return recent;
+    }
+
+    // Fixed-size ring of card ids, newest at head - 1; guarded by its own monitor
+    private static final class RecentCards {
+        private final long[] ids;
+        private int head;
+        private int size;
+
+        private RecentCards(int capacity) {
+            this.ids = new long[Math.max(capacity, 1)];
+        }
+
+        void push(Long cardId) {
+            if (cardId == null) {
+                return;
+            }
+            ids[head] = cardId;
+            head = (head + 1) % ids.length;
+            size = Math.min(size + 1, ids.length);
+        }
+
+        // Replaces the newest occurrence of oldCardId; false when it is no longer in the ring
+        boolean replaceLatest(long oldCardId, long newCardId) {
+            for (int i = 1; i <= size; i++) {
+                int index = (head - i + ids.length) % ids.length;
+                if (ids[index] == oldCardId) {
+                    ids[index] = newCardId;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean containsInLast(long cardId, int count) {
+            int limit = Math.min(count, size);
+            for (int i = 1; i <= limit; i++) {
+                if (ids[(head - i + ids.length) % ids.length] == cardId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
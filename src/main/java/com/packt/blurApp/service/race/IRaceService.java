@@ -2,6 +2,10 @@ package com.packt.blurApp.service.race;
 
 import java.util.List;
 
+import com.packt.blurApp.dto.Race.RaceCountsDto;
+import com.packt.blurApp.dto.Race.RaceDailyCountsDto;
+import com.packt.blurApp.dto.Race.RaceParticipantsResultDto;
+import com.packt.blurApp.dto.Race.RaceSummaryPageDto;
 import com.packt.blurApp.model.Race;
 import com.packt.blurApp.model.enums.AttributionType;
 
@@ -11,6 +15,8 @@ public interface IRaceService {
     Race createRace(Long partyId, AttributionType attributionType);
     
     Race addParticipant(Long raceId, Long userId);
+
+    RaceParticipantsResultDto addParticipants(Long raceId, List<Long> userIds);
     
     Race removeParticipant(Long raceId, Long userId);
     
@@ -31,4 +37,16 @@ public interface IRaceService {
     List<Race> getRacesByStatus(String status);
 
     long getTotalRacesCount();
+
+    RaceCountsDto getRaceCounts();
+
+    RaceCountsDto getRaceCountsByPartyId(Long partyId);
+
+    List<RaceDailyCountsDto> getDailyRaceCounts(int days);
+
+    RaceSummaryPageDto getRaceSummaries(Long cursor, Integer size);
+
+    RaceSummaryPageDto getRaceSummariesByPartyId(Long partyId, Long cursor, Integer size);
+
+    RaceSummaryPageDto getRaceSummariesByStatus(String status, Long cursor, Integer size);
 }
@@ -0,0 +1,177 @@
+package com.packt.blurApp.service.race;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.packt.blurApp.dto.Race.RaceCountsDto;
+import com.packt.blurApp.dto.Race.RaceDailyCountsDto;
+import com.packt.blurApp.event.RaceStatusChangedEvent;
+import com.packt.blurApp.model.enums.RaceStatus;
+import com.packt.blurApp.repository.RaceRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Race totals by status overall, per party and per creation day, kept in memory so count endpoints
+ * never scan the race table. Status changes are applied once their transaction commits; a periodic
+ * reconciliation rebuilds everything from one grouped query and replaces the live counters.
+ * A change committed while a reconciliation runs may be off by one until the next reconciliation.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RaceCounters {
+    private static final RaceStatus[] STATUSES = RaceStatus.values();
+
+    private final RaceRepository raceRepository;
+
+    @Value("${race.counters.retention-days:90}")
+    private int retentionDays;
+
+    private final AtomicReference<Counters> counters = new AtomicReference<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${race.counters.reconcile-interval-ms:300000}",
+            fixedDelayString = "${race.counters.reconcile-interval-ms:300000}"
+    )
+    public void reconcile() {
+        LocalDate since = LocalDate.now().minusDays(retentionDays);
+        Counters rebuilt = new Counters();
+        for (RaceRepository.RaceStatusCountView view : raceRepository.countByPartyDayAndStatus()) {
+            LocalDate day = view.getDay() != null && !view.getDay().isBefore(since) ? view.getDay() : null;
+            rebuilt.add(view.getPartyId(), day, view.getStatus(), view.getTotal());
+        }
+        Counters previous = counters.getAndSet(rebuilt);
+        if (previous != null) {
+            long drift = rebuilt.total.sum() - previous.total.sum();
+            if (drift != 0) {
+                log.warn("Race counters drifted by {} since the last reconciliation", drift);
+            }
+        }
+        log.debug("Race counters reconciled: {} races", rebuilt.total.sum());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(RaceStatusChangedEvent event) {
+        Counters current = counters.get();
+        if (current == null) {
+            // Not loaded yet: the first read reconciles from the database, which already has this change
+            return;
+        }
+        LocalDate day = event.createdOn() != null && !event.createdOn().isBefore(LocalDate.now().minusDays(retentionDays))
+                ? event.createdOn()
+                : null;
+        if (event.from() != null) {
+            current.add(event.partyId(), day, event.from(), -1);
+        }
+        if (event.to() != null) {
+            current.add(event.partyId(), day, event.to(), 1);
+        }
+    }
+
+    public RaceCountsDto totals() {
+        Counters current = current();
+        return current.total.toDto();
+    }
+
+    public RaceCountsDto forParty(Long partyId) {
+        StatusCounts counts = current().byParty.get(partyId);
+        return counts != null ? counts.toDto() : new StatusCounts().toDto();
+    }
+
+    // Most recent first, one entry per day including days without races
+    public List<RaceDailyCountsDto> daily(int days) {
+        Counters current = current();
+        int window = Math.max(1, Math.min(days, retentionDays));
+        LocalDate today = LocalDate.now();
+        List<RaceDailyCountsDto> result = new ArrayList<>(window);
+        for (int i = 0; i < window; i++) {
+            LocalDate day = today.minusDays(i);
+            StatusCounts counts = current.byDay.getOrDefault(day, new StatusCounts());
+            RaceCountsDto dto = counts.toDto();
+            result.add(new RaceDailyCountsDto(day, dto.getTotal(), dto.getByStatus()));
+        }
+        return result;
+    }
+
+    private Counters current() {
+        Counters current = counters.get();
+        if (current == null) {
+            synchronized (this) {
+                if (counters.get() == null) {
+                    reconcile();
+                }
+            }
+            current = counters.get();
+        }
+        return current;
+    }
+
+    private static final class Counters {
+        private final StatusCounts total = new StatusCounts();
+        private final Map<Long, StatusCounts> byParty = new ConcurrentHashMap<>();
+        private final Map<LocalDate, StatusCounts> byDay = new ConcurrentHashMap<>();
+
+        void add(Long partyId, LocalDate day, RaceStatus status, long delta) {
+            if (status == null) {
+                return;
+            }
+            total.add(status, delta);
+            if (partyId != null) {
+                byParty.computeIfAbsent(partyId, id -> new StatusCounts()).add(status, delta);
+            }
+            if (day != null) {
+                byDay.computeIfAbsent(day, d -> new StatusCounts()).add(status, delta);
+            }
+        }
+    }
+
+    private static final class StatusCounts {
+        private final LongAdder[] byStatus = new LongAdder[STATUSES.length];
+
+        StatusCounts() {
+            for (int i = 0; i < byStatus.length; i++) {
+                byStatus[i] = new LongAdder();
+            }
+        }
+
+        void add(RaceStatus status, long delta) {
+            byStatus[status.ordinal()].add(delta);
+        }
+
+        long sum() {
+            long sum = 0;
+            for (LongAdder adder : byStatus) {
+                sum += adder.sum();
+            }
+            return sum;
+        }
+
+        RaceCountsDto toDto() {
+            Map<RaceStatus, Long> counts = new EnumMap<>(RaceStatus.class);
+            long sum = 0;
+            for (RaceStatus status : STATUSES) {
+                long count = byStatus[status.ordinal()].sum();
+                counts.put(status, count);
+                sum += count;
+            }
+            return new RaceCountsDto(sum, counts);
+        }
+    }
+}
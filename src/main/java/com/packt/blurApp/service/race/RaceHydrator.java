@@ -0,0 +1,79 @@
+package com.packt.blurApp.service.race;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.packt.blurApp.model.Race;
+import com.packt.blurApp.repository.RaceRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads fully initialized {@link Race} aggregates (everything {@code RaceMapper} reads) without the
+ * cartesian product of a single multi-collection fetch join: one base query for the races and their
+ * to-one associations, then one {@code IN (...)} query per collection, in chunks of ids.
+ * For N races of P participants, S scores, A attributions and R parameters this transfers roughly
+ * N + N*(P + S + A + R) rows instead of N*P*S*A*R.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RaceHydrator {
+    private final RaceRepository raceRepository;
+
+    @Value("${race.hydration.chunk-size:500}")
+    private int chunkSize;
+
+    @Transactional(readOnly = true)
+    public Optional<Race> hydrate(Long id) {
+        List<Race> races = hydrate(List.of(id));
+        return races.isEmpty() ? Optional.empty() : Optional.of(races.get(0));
+    }
+
+    /**
+     * Returns the races in the order of the given ids, skipping ids that do not exist.
+     * Must run inside a transaction so every query fills the same managed instances.
+     */
+    @Transactional(readOnly = true)
+    public List<Race> hydrate(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        List<Long> orderedIds = new ArrayList<>(ids);
+        Map<Long, Race> byId = new LinkedHashMap<>(orderedIds.size() * 2);
+        int queries = 0;
+
+        for (int from = 0; from < orderedIds.size(); from += chunkSize) {
+            List<Long> chunk = orderedIds.subList(from, Math.min(from + chunkSize, orderedIds.size()));
+            for (Race race : raceRepository.findBaseByIdIn(chunk)) {
+                byId.put(race.getId(), race);
+            }
+            raceRepository.fetchParticipants(chunk);
+            raceRepository.fetchScores(chunk);
+            raceRepository.fetchAttributions(chunk);
+            raceRepository.fetchRaceParameters(chunk);
+            queries += 5;
+        }
+
+        List<Race> result = new ArrayList<>(byId.size());
+        for (Long id : orderedIds) {
+            Race race = byId.get(id);
+            if (race != null) {
+                result.add(race);
+            }
+        }
+        log.debug("Hydrated {} races with {} queries in {} ms",
+                result.size(), queries, (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+}
@@ -1,24 +1,40 @@
 package com.packt.blurApp.service.race;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.packt.blurApp.dto.Race.RaceCountsDto;
+import com.packt.blurApp.dto.Race.RaceDailyCountsDto;
+import com.packt.blurApp.dto.Race.RaceParticipantsResultDto;
+import com.packt.blurApp.dto.Race.RaceSummaryDto;
+import com.packt.blurApp.dto.Race.RaceSummaryPageDto;
+import com.packt.blurApp.event.RaceLifecycleEvent;
+import com.packt.blurApp.event.RaceStatusChangedEvent;
 import com.packt.blurApp.exceptions.BadRequestException;
+import com.packt.blurApp.exceptions.ConflictException;
 import com.packt.blurApp.exceptions.ForbiddenException;
 import com.packt.blurApp.exceptions.ResourceNotFoundExceptions;
 import com.packt.blurApp.config.security.RoleNames;
 import com.packt.blurApp.model.*;
 import com.packt.blurApp.model.enums.AttributionType;
 import com.packt.blurApp.model.enums.PartyRole;
+import com.packt.blurApp.model.enums.RaceEventType;
 import com.packt.blurApp.model.enums.RaceStatus;
 import com.packt.blurApp.repository.*;
+import com.packt.blurApp.service.catalog.GameCatalog;
 import com.packt.blurApp.service.party.IPartyService;
 import com.packt.blurApp.service.user.IUserService;
 
@@ -33,17 +49,27 @@ public class RaceService implements IRaceService {
     private final IPartyService partyService;
     private final IUserService userService;
     private final UserRepository userRepository;
-    private final RaceParametersRepository raceParametersRepository;
     private final AttributionRepository attributionRepository;
-    private final CarRepository carRepository;
-    private final CardRepository cardRepository;
     private final PartyRepository partyRepository;
+    private final PartyMemberRepository partyMemberRepository;
+    private final RaceHydrator raceHydrator;
+    private final GameCatalog gameCatalog;
+    private final CardRotationEngine cardRotationEngine;
+    private final CarAllocationEngine carAllocationEngine;
+    private final RaceCounters raceCounters;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${race.summaries.default-page-size:20}")
+    private int defaultSummaryPageSize;
+
+    @Value("${race.summaries.max-page-size:100}")
+    private int maxSummaryPageSize;
 
     @Override
     @Transactional(readOnly = true)
     public Race getRaceById(Long id) {
         log.debug("Fetching race by ID: {}", id);
-        return raceRepository.findWithGraphById(id)
+        return raceHydrator.hydrate(id)
                 .orElseThrow(() -> new ResourceNotFoundExceptions("Race not found with ID: " + id));
     }
 
@@ -67,56 +93,29 @@ public class RaceService implements IRaceService {
             partyRepository.save(party);
         }
         
-        // Select random card (map)
-        List<Card> allCards = cardRepository.findAll();
-        if (allCards.isEmpty()) {
+        // Select random card (map), avoiding the party's last few cards
+        Card randomCard = cardRotationEngine.nextCard(partyId, null);
+        if (randomCard == null) {
             throw new BadRequestException("No cards available. Please add cards to the system.");
         }
-
-        // Avoid repeating the same card twice in a row for the same party (best effort).
-        Long lastCardId = raceRepository.findTopByParty_IdOrderByIdDesc(partyId)
-                .map(Race::getCard)
-                .map(Card::getId)
-                .orElse(null);
-
-        List<Card> selectableCards = allCards;
-        if (lastCardId != null && allCards.size() > 1) {
-            selectableCards = allCards.stream().filter(c -> !lastCardId.equals(c.getId())).toList();
-            if (selectableCards.isEmpty()) {
-                selectableCards = allCards;
-            }
-        }
-
-        Card randomCard = selectableCards.get(ThreadLocalRandom.current().nextInt(selectableCards.size()));
         
         // Create race
         Race race = Race.builder()
                 .party(party)
                 .creator(currentUser)
-                .card(randomCard)
+                .card(gameCatalog.cardReference(randomCard.getId()))
                 .attributionType(attributionType)
                 .status(RaceStatus.PENDING)
                 .build();
         
         // Add race parameters (setup automatically)
         // Randomly select between 0 and ALL available parameters with equal probability
-        List<RaceParameters> allParameters = raceParametersRepository.findAll();
-        if (!allParameters.isEmpty()) {
-            // Shuffle the parameters list to randomize selection order
-            List<RaceParameters> shuffledParameters = new ArrayList<>(allParameters);
-            Collections.shuffle(shuffledParameters);
-            
-            // Randomly determine how many parameters to select (0 to allParameters.size(), inclusive)
-            // Each count has equal probability
-            int parameterCount = ThreadLocalRandom.current().nextInt(allParameters.size() + 1);
-            
-            // Add the selected number of parameters
-            for (int i = 0; i < parameterCount; i++) {
-                race.addRaceParameter(shuffledParameters.get(i));
-            }
-            
-            log.debug("Selected {} race parameters out of {} available", parameterCount, allParameters.size());
+        List<RaceParameters> selectedParameters = gameCatalog.randomRaceParameters();
+        for (RaceParameters parameter : selectedParameters) {
+            race.addRaceParameter(gameCatalog.raceParametersReference(parameter.getId()));
         }
+        log.debug("Selected {} race parameters out of {} available",
+                selectedParameters.size(), gameCatalog.getRaceParameters().size());
         
         // Persist race (party relationship is already set via builder)
         // Party membership changes (party.addMember) are persisted by JPA at transaction commit.
@@ -126,6 +125,9 @@ public class RaceService implements IRaceService {
         Race hydratedRace = getRaceById(savedRace.getId());
 
         log.info("Race created successfully with ID: {}", hydratedRace.getId());
+        publish(RaceEventType.RACE_CREATED, hydratedRace.getId(), partyId, List.of());
+        eventPublisher.publishEvent(new RaceStatusChangedEvent(hydratedRace.getId(), partyId,
+                hydratedRace.getCreatedAt().toLocalDate(), null, RaceStatus.PENDING));
         return hydratedRace;
     }
 
@@ -134,43 +136,74 @@ public class RaceService implements IRaceService {
     public Race addParticipant(Long raceId, Long userId) {
         log.info("Adding participant {} to race {}", userId, raceId);
         
-        Race race = getRaceById(raceId);
+        RaceParticipantsResultDto result = addParticipants(raceId, List.of(userId));
+        if (result.getAddedUserIds().isEmpty()) {
+            throw new BadRequestException("User is already a participant in this race");
+        }
         
-        if (race.getStatus() != RaceStatus.PENDING) {
+        log.info("Participant {} added to race {}", userId, raceId);
+        return getRaceById(raceId);
+    }
+
+    @Override
+    @Transactional
+    public RaceParticipantsResultDto addParticipants(Long raceId, List<Long> userIds) {
+        Set<Long> requested = new LinkedHashSet<>(userIds);
+        log.info("Adding {} participants to race {}", requested.size(), raceId);
+        
+        RaceRepository.RaceStateView state = raceRepository.findStateById(raceId)
+                .orElseThrow(() -> new ResourceNotFoundExceptions("Race not found with ID: " + raceId));
+        if (state.getStatus() != RaceStatus.PENDING) {
             throw new BadRequestException("Can only add participants to pending races");
         }
         
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundExceptions("User not found with ID: " + userId));
+        Set<Long> found = new HashSet<>();
+        for (UserRepository.UserRoleView user : userRepository.findRoleViewsByIdIn(requested)) {
+            // GREAT_ADMIN cannot participate in races - they are administrators only
+            if (RoleNames.GREAT_ADMIN.equals(user.getRoleName())) {
+                throw new ForbiddenException("Administrators cannot participate in races. Only racers can join.");
+            }
+            found.add(user.getId());
+        }
+        for (Long id : requested) {
+            if (!found.contains(id)) {
+                throw new ResourceNotFoundExceptions("User not found with ID: " + id);
+            }
+        }
         
-        // GREAT_ADMIN cannot participate in races - they are administrators only
-        if (user.getRole() != null && RoleNames.GREAT_ADMIN.equals(user.getRole().getName())) {
-            throw new ForbiddenException("Administrators cannot participate in races. Only racers can join.");
+        // Both writes are single INSERT ... ON CONFLICT DO NOTHING statements: no read-modify-write
+        // of the race or party entities, so a whole lobby can join concurrently.
+        List<Long> added = raceRepository.insertParticipants(raceId, requested);
+        List<Long> alreadyParticipants = new ArrayList<>();
+        if (added.size() < requested.size()) {
+            Set<Long> addedIds = new HashSet<>(added);
+            Set<Long> participants = new HashSet<>(raceRepository.findParticipantIds(raceId));
+            for (Long id : requested) {
+                if (addedIds.contains(id)) {
+                    continue;
+                }
+                if (!participants.contains(id)) {
+                    // Nothing was inserted for this user although they are not in the race: it left PENDING meanwhile
+                    throw new ConflictException("Race " + raceId + " was started or changed by another request");
+                }
+                alreadyParticipants.add(id);
+            }
         }
         
         // New rule: racers join races (not parties). Party membership is implied.
-        // Ensure the user is a party member (so existing backend invariants still hold).
-        Party party = race.getParty();
-        if (party != null && !party.isMember(user)) {
-            PartyMember partyMember = PartyMember.builder()
-                    .party(party)
-                    .user(user)
-                    .role(PartyRole.PARTICIPANT)
-                    .build();
-            party.addPartyMember(partyMember);
-            partyRepository.save(party);
+        if (state.getPartyId() != null) {
+            partyMemberRepository.insertParticipants(state.getPartyId(), requested);
         }
         
-        if (race.isParticipant(user)) {
-            throw new BadRequestException("User is already a participant in this race");
+        log.info("Race {}: {} participants added, {} already joined", raceId, added.size(), alreadyParticipants.size());
+        if (!added.isEmpty()) {
+            publish(RaceEventType.PARTICIPANTS_JOINED, raceId, state.getPartyId(), added);
         }
-        
-        // Party membership changes (party.addMember) are persisted by JPA at transaction commit.
-        race.addParticipant(user);
-        Race updatedRace = raceRepository.save(race);
-        
-        log.info("Participant {} added to race {}", userId, raceId);
-        return updatedRace;
+        return RaceParticipantsResultDto.builder()
+                .raceId(raceId)
+                .addedUserIds(added)
+                .alreadyParticipantUserIds(alreadyParticipants)
+                .build();
     }
 
     @Override
@@ -195,6 +228,7 @@ public class RaceService implements IRaceService {
         Race updatedRace = raceRepository.save(race);
         
         log.info("Participant {} removed from race {}", userId, raceId);
+        publish(RaceEventType.PARTICIPANT_LEFT, raceId, partyIdOf(updatedRace), List.of(userId));
         return updatedRace;
     }
 
@@ -203,84 +237,83 @@ public class RaceService implements IRaceService {
     public Race startRace(Long raceId) {
         log.info("Starting race {}", raceId);
         
-        User currentUser = userService.getCurrentUser();
-        Race race = getRaceById(raceId);
+        Long currentUserId = userService.getCurrentUserId();
+        RaceRepository.RaceStateView state = raceRepository.findStateById(raceId)
+                .orElseThrow(() -> new ResourceNotFoundExceptions("Race not found with ID: " + raceId));
+        List<Long> participantIds = raceRepository.findParticipantIds(raceId);
         
         // New rule: racers join a specific race (not the party).
         // Any joined racer can start the race.
-        if (!race.isParticipant(currentUser)) {
+        if (!participantIds.contains(currentUserId)) {
             throw new ForbiddenException("Only joined race participants can start the race");
         }
         
-        if (race.getStatus() != RaceStatus.PENDING) {
+        if (state.getStatus() != RaceStatus.PENDING) {
             throw new BadRequestException("Race must be in PENDING status to start");
         }
         
-        if (race.getParticipants().isEmpty()) {
-            throw new BadRequestException("Cannot start race without participants");
+        // The guarded update is what decides: of two concurrent starts only one matches status = PENDING
+        int updated = raceRepository.markStarted(raceId, LocalDateTime.now());
+        if (updated == 0) {
+            throw new ConflictException("Race " + raceId + " was started or changed by another request");
         }
         
+        // Joins share-lock the pending race row, so now that the update holds it every join has either
+        // committed (and is read here) or will find the race IN_PROGRESS and insert nothing
+        List<Long> startingGrid = raceRepository.findParticipantIds(raceId);
+        
+        // Assign random score collector from participants
+        Long scoreCollectorId = startingGrid.get(ThreadLocalRandom.current().nextInt(startingGrid.size()));
+        raceRepository.assignScoreCollector(raceId, userRepository.getReferenceById(scoreCollectorId));
+        
         // Create car attributions only if they don't exist
-        if (race.getAttributions() == null || race.getAttributions().isEmpty()) {
+        if (!attributionRepository.existsByRace_Id(raceId)) {
             log.info("No attributions found for race {}. Creating attributions automatically.", raceId);
-            createAttributions(race);
+            createAttributions(raceRepository.getReferenceById(raceId), state.getPartyId(), state.getAttributionType(), startingGrid);
         } else {
-            log.info("Race {} already has {} attributions. Skipping attribution creation.", 
-                    raceId, race.getAttributions().size());
+            log.info("Race {} already has attributions. Skipping attribution creation.", raceId);
         }
         
-        // Assign random score collector from participants
-        List<User> participants = new ArrayList<>(race.getParticipants());
-        User scoreCollector = participants.get(ThreadLocalRandom.current().nextInt(participants.size()));
-        race.setScoreCollector(scoreCollector);
-        
-        race.start();
-        Race updatedRace = raceRepository.save(race);
-        
-        log.info("Race {} started successfully. Score collector: {}", raceId, scoreCollector.getUsername());
-        return updatedRace;
+        log.info("Race {} started successfully. Score collector: {}", raceId, scoreCollectorId);
+        publish(RaceEventType.RACE_STARTED, raceId, state.getPartyId(), List.of());
+        publishStatusChange(state, RaceStatus.IN_PROGRESS);
+        return getRaceById(raceId);
     }
 
-    private void createAttributions(Race race) {
+    private void createAttributions(Race race, Long partyId, AttributionType attributionType, List<Long> participantIds) {
         log.debug("Creating car attributions for race {}", race.getId());
         
-        List<Car> allCars = carRepository.findAll();
+        List<Car> allCars = gameCatalog.getCars();
         if (allCars.isEmpty()) {
             throw new BadRequestException("No cars available. Please add cars to the system.");
         }
         
-        if (race.getAttributionType() == AttributionType.ALL_USERS) {
-            // All users get the same random car
-            Car randomCar = allCars.get(ThreadLocalRandom.current().nextInt(allCars.size()));
-            for (User participant : race.getParticipants()) {
-                Attribution attribution = Attribution.builder()
+        List<Attribution> attributions = new ArrayList<>(participantIds.size());
+        if (attributionType == AttributionType.ALL_USERS) {
+            // All users get the same car, the one the party has driven the least
+            Car sharedCar = carAllocationEngine.allocateShared(partyId, null);
+            for (Long participantId : participantIds) {
+                attributions.add(Attribution.builder()
                         .race(race)
-                        .user(participant)
-                        .car(randomCar)
-                        .build();
-                attributionRepository.save(attribution);
-                race.addAttribution(attribution);
+                        .user(userRepository.getReferenceById(participantId))
+                        .car(gameCatalog.carReference(sharedCar.getId()))
+                        .build());
             }
-            log.info("All participants assigned car: {}", randomCar.getName());
+            log.info("All participants assigned car: {}", sharedCar.getName());
         } else {
-            // Each user gets a different random car
-            List<Car> shuffledCars = new ArrayList<>(allCars);
-            Collections.shuffle(shuffledCars);
-            
-            int carIndex = 0;
-            for (User participant : race.getParticipants()) {
-                Car assignedCar = shuffledCars.get(carIndex % shuffledCars.size());
-                Attribution attribution = Attribution.builder()
+            // Each user gets a distinct car they have driven the least
+            List<Car> assignedCars = carAllocationEngine.allocate(partyId, participantIds);
+            for (int i = 0; i < participantIds.size(); i++) {
+                attributions.add(Attribution.builder()
                         .race(race)
-                        .user(participant)
-                        .car(assignedCar)
-                        .build();
-                attributionRepository.save(attribution);
-                race.addAttribution(attribution);
-                carIndex++;
+                        .user(userRepository.getReferenceById(participantIds.get(i)))
+                        .car(gameCatalog.carReference(assignedCars.get(i).getId()))
+                        .build());
             }
-            log.info("Each participant assigned individual random cars");
+            log.info("Each participant assigned an individual car");
         }
+        // Ids come from a pooled sequence, so this is flushed as one JDBC batch
+        carAllocationEngine.record(partyId, attributionRepository.saveAll(attributions));
     }
 
     @Override
@@ -288,23 +321,27 @@ public class RaceService implements IRaceService {
     public Race completeRace(Long raceId) {
         log.info("Completing race {}", raceId);
         
-        User currentUser = userService.getCurrentUser();
-        Race race = getRaceById(raceId);
+        Long currentUserId = userService.getCurrentUserId();
+        RaceRepository.RaceStateView state = raceRepository.findStateById(raceId)
+                .orElseThrow(() -> new ResourceNotFoundExceptions("Race not found with ID: " + raceId));
         
         // Any joined race participant can complete the race (same rule as starting)
-        if (!race.isParticipant(currentUser)) {
+        if (!raceRepository.findParticipantIds(raceId).contains(currentUserId)) {
             throw new ForbiddenException("Only joined race participants can complete the race");
         }
         
-        if (race.getStatus() != RaceStatus.IN_PROGRESS) {
+        if (state.getStatus() != RaceStatus.IN_PROGRESS) {
             throw new BadRequestException("Race must be in IN_PROGRESS status to complete");
         }
         
-        race.complete();
-        Race updatedRace = raceRepository.save(race);
+        if (raceRepository.markCompleted(raceId, LocalDateTime.now()) == 0) {
+            throw new ConflictException("Race " + raceId + " was completed or changed by another request");
+        }
         
         log.info("Race {} completed successfully", raceId);
-        return updatedRace;
+        publish(RaceEventType.RACE_COMPLETED, raceId, state.getPartyId(), List.of());
+        publishStatusChange(state, RaceStatus.COMPLETED);
+        return getRaceById(raceId);
     }
 
     @Override
@@ -313,7 +350,8 @@ public class RaceService implements IRaceService {
         log.info("Cancelling race {}", raceId);
         
         User currentUser = userService.getCurrentUser();
-        Race race = getRaceById(raceId);
+        Race race = raceRepository.findById(raceId)
+                .orElseThrow(() -> new ResourceNotFoundExceptions("Race not found with ID: " + raceId));
         
         // Only creator or party managers can cancel races
         if (!race.getCreator().equals(currentUser) && !race.getParty().canManage(currentUser)) {
@@ -324,11 +362,21 @@ public class RaceService implements IRaceService {
             throw new BadRequestException("Cannot cancel completed race");
         }
         
-        race.cancel();
-        Race updatedRace = raceRepository.save(race);
+        if (race.getStatus() == RaceStatus.CANCELLED) {
+            throw new BadRequestException("Race is already cancelled");
+        }
+        
+        Long partyId = partyIdOf(race);
+        RaceStatus previousStatus = race.getStatus();
+        LocalDate createdOn = race.getCreatedAt() != null ? race.getCreatedAt().toLocalDate() : null;
+        if (raceRepository.markCancelled(raceId, previousStatus) == 0) {
+            throw new ConflictException("Race " + raceId + " was started or completed by another request");
+        }
         
         log.info("Race {} cancelled successfully", raceId);
-        return updatedRace;
+        publish(RaceEventType.RACE_CANCELLED, raceId, partyId, List.of());
+        eventPublisher.publishEvent(new RaceStatusChangedEvent(raceId, partyId, createdOn, previousStatus, RaceStatus.CANCELLED));
+        return getRaceById(raceId);
     }
 
     @Override
@@ -342,30 +390,17 @@ public class RaceService implements IRaceService {
             throw new BadRequestException("Can only change card for pending races");
         }
         
-        // Get all available cards
-        List<Card> allCards = cardRepository.findAll();
-        if (allCards.isEmpty()) {
-            throw new BadRequestException("No cards available in the system");
-        }
-        
-        // Avoid selecting the same card
+        // Select random card, avoiding the current one and the party's last few cards
         Card currentCard = race.getCard();
-        List<Card> selectableCards = allCards;
-        if (currentCard != null && allCards.size() > 1) {
-            selectableCards = allCards.stream()
-                    .filter(c -> !c.getId().equals(currentCard.getId()))
-                    .toList();
-            if (selectableCards.isEmpty()) {
-                selectableCards = allCards;
-            }
+        Card newCard = cardRotationEngine.nextCard(partyIdOf(race), currentCard != null ? currentCard.getId() : null);
+        if (newCard == null) {
+            throw new BadRequestException("No cards available in the system");
         }
-        
-        // Select random card
-        Card newCard = selectableCards.get(ThreadLocalRandom.current().nextInt(selectableCards.size()));
-        race.setCard(newCard);
+        race.setCard(gameCatalog.cardReference(newCard.getId()));
         
         Race updatedRace = raceRepository.save(race);
         log.info("Card changed for race {} to card {}", raceId, newCard.getId());
+        publish(RaceEventType.CARD_CHANGED, raceId, partyIdOf(updatedRace), List.of());
         
         return getRaceById(updatedRace.getId());
     }
@@ -385,7 +420,7 @@ public class RaceService implements IRaceService {
         org.hibernate.Hibernate.initialize(race.getParticipants());
         log.debug("Race {} has {} participants", raceId, race.getParticipants().size());
         
-        List<Car> allCars = carRepository.findAll();
+        List<Car> allCars = gameCatalog.getCars();
         if (allCars.isEmpty()) {
             throw new BadRequestException("No cars available in the system");
         }
@@ -408,6 +443,7 @@ public class RaceService implements IRaceService {
                 
                 // Delete existing attributions explicitly
                 log.info("Clearing {} existing attributions for race {}", race.getAttributions().size(), raceId);
+                carAllocationEngine.release(partyIdOf(race), race.getAttributions());
                 attributionRepository.deleteAll(race.getAttributions());
                 race.getAttributions().clear();
             } else {
@@ -419,26 +455,18 @@ public class RaceService implements IRaceService {
                 race.setAttributions(new HashSet<>());
             }
             
-            List<Car> selectableCars = allCars;
-            if (currentCar != null && allCars.size() > 1) {
-                selectableCars = allCars.stream()
-                        .filter(c -> !c.getId().equals(currentCar.getId()))
-                        .toList();
-                if (selectableCars.isEmpty()) {
-                    selectableCars = allCars;
-                }
-            }
-            Car newCar = selectableCars.get(ThreadLocalRandom.current().nextInt(selectableCars.size()));
+            Car newCar = carAllocationEngine.allocateShared(partyIdOf(race), currentCar != null ? currentCar.getId() : null);
             
             // Create global attribution (no user, just car for the race)
             Attribution globalAttribution = Attribution.builder()
                     .race(race)
                     .user(null)
-                    .car(newCar)
+                    .car(gameCatalog.carReference(newCar.getId()))
                     .notes("Global car for all participants")
                     .build();
             Attribution savedAttribution = attributionRepository.save(globalAttribution);
             race.getAttributions().add(savedAttribution);
+            carAllocationEngine.record(partyIdOf(race), List.of(savedAttribution));
             log.info("Assigned global car {} to race {}", newCar.getId(), raceId);
         } else {
             // PER_USER: Assign individual cars to each participant
@@ -452,6 +480,7 @@ public class RaceService implements IRaceService {
             // Delete existing attributions explicitly
             if (race.getAttributions() != null && !race.getAttributions().isEmpty()) {
                 log.info("Clearing {} existing attributions for race {}", race.getAttributions().size(), raceId);
+                carAllocationEngine.release(partyIdOf(race), race.getAttributions());
                 attributionRepository.deleteAll(race.getAttributions());
                 race.getAttributions().clear();
             }
@@ -461,40 +490,62 @@ public class RaceService implements IRaceService {
                 race.setAttributions(new HashSet<>());
             }
             
-            // Assign random car to each participant
-            for (User participant : participants) {
-                Car randomCar = allCars.get(ThreadLocalRandom.current().nextInt(allCars.size()));
+            // Distinct, least-driven cars per participant, written as one JDBC batch
+            List<User> orderedParticipants = new ArrayList<>(participants);
+            List<Car> assignedCars = carAllocationEngine.allocate(partyIdOf(race),
+                    orderedParticipants.stream().map(User::getId).toList());
+            List<Attribution> attributions = new ArrayList<>(orderedParticipants.size());
+            for (int i = 0; i < orderedParticipants.size(); i++) {
+                User participant = orderedParticipants.get(i);
+                Car assignedCar = assignedCars.get(i);
                 Attribution attribution = Attribution.builder()
                         .race(race)
                         .user(participant)
-                        .car(randomCar)
+                        .car(gameCatalog.carReference(assignedCar.getId()))
                         .build();
-                // Save each attribution immediately
-                Attribution savedAttribution = attributionRepository.save(attribution);
-                race.getAttributions().add(savedAttribution);
+                attributions.add(attribution);
                 log.info("Assigned car {} (id={}) to user {} (id={}) in race {}", 
-                        randomCar.getName(), randomCar.getId(), 
+                        assignedCar.getName(), assignedCar.getId(), 
                         participant.getUsername(), participant.getId(), raceId);
             }
+            List<Attribution> saved = attributionRepository.saveAll(attributions);
+            carAllocationEngine.record(partyIdOf(race), saved);
+            race.getAttributions().addAll(saved);
             log.info("Total attributions created: {}", race.getAttributions().size());
         }
         
         Race updatedRace = raceRepository.save(race);
+        publish(RaceEventType.CARS_ASSIGNED, raceId, partyIdOf(updatedRace), List.of());
         return getRaceById(updatedRace.getId());
     }
 
+    // Delivered to stream subscribers by RaceEventBroadcaster once the transaction commits
+    private void publish(RaceEventType type, Long raceId, Long partyId, List<Long> userIds) {
+        eventPublisher.publishEvent(RaceLifecycleEvent.of(type, raceId, partyId, userIds));
+    }
+
+    // Applied to RaceCounters once the transaction commits
+    private void publishStatusChange(RaceRepository.RaceStateView state, RaceStatus to) {
+        LocalDate createdOn = state.getCreatedAt() != null ? state.getCreatedAt().toLocalDate() : null;
+        eventPublisher.publishEvent(new RaceStatusChangedEvent(state.getId(), state.getPartyId(), createdOn, state.getStatus(), to));
+    }
+
+    private static Long partyIdOf(Race race) {
+        return race.getParty() != null ? race.getParty().getId() : null;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Race> getAllRaces() {
         log.debug("Fetching all races");
-        return raceRepository.findAll(); // overridden with entity graph
+        return raceHydrator.hydrate(raceRepository.findAllIds());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Race> getRacesByPartyId(Long partyId) {
         log.debug("Fetching races for party {}", partyId);
-        return raceRepository.findByParty_Id(partyId);
+        return raceHydrator.hydrate(raceRepository.findIdsByPartyId(partyId));
     }
 
     @Override
@@ -503,7 +554,7 @@ public class RaceService implements IRaceService {
         log.debug("Fetching races by status: {}", status);
         try {
             RaceStatus raceStatus = RaceStatus.valueOf(status.toUpperCase());
-            return raceRepository.findByStatus(raceStatus); // entity graph
+            return raceHydrator.hydrate(raceRepository.findIdsByStatus(raceStatus));
         } catch (IllegalArgumentException e) {
             throw new BadRequestException("Invalid race status: " + status);
         }
@@ -511,6 +562,73 @@ public class RaceService implements IRaceService {
 
     @Override
     public long getTotalRacesCount() {
-        return raceRepository.count();
+        return raceCounters.totals().getTotal();
+    }
+
+    @Override
+    public RaceCountsDto getRaceCounts() {
+        return raceCounters.totals();
+    }
+
+    @Override
+    public RaceCountsDto getRaceCountsByPartyId(Long partyId) {
+        return raceCounters.forParty(partyId);
+    }
+
+    @Override
+    public List<RaceDailyCountsDto> getDailyRaceCounts(int days) {
+        return raceCounters.daily(days);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RaceSummaryPageDto getRaceSummaries(Long cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toSummaryPage(raceRepository.findSummaries(resolveCursor(cursor), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RaceSummaryPageDto getRaceSummariesByPartyId(Long partyId, Long cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toSummaryPage(raceRepository.findSummariesByPartyId(partyId, resolveCursor(cursor), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RaceSummaryPageDto getRaceSummariesByStatus(String status, Long cursor, Integer size) {
+        RaceStatus raceStatus;
+        try {
+            raceStatus = RaceStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid race status: " + status);
+        }
+        int pageSize = resolvePageSize(size);
+        return toSummaryPage(raceRepository.findSummariesByStatus(raceStatus, resolveCursor(cursor), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultSummaryPageSize;
+        }
+        if (size < 1 || size > maxSummaryPageSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxSummaryPageSize);
+        }
+        return size;
+    }
+
+    private static Long resolveCursor(Long cursor) {
+        return cursor == null ? Long.MAX_VALUE : cursor;
+    }
+
+    // One extra row is fetched to know whether another page exists without a count query
+    private static RaceSummaryPageDto toSummaryPage(List<RaceSummaryDto> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<RaceSummaryDto> page = hasMore ? rows.subList(0, pageSize) : rows;
+        return RaceSummaryPageDto.builder()
+                .races(new ArrayList<>(page))
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? page.get(page.size() - 1).getId() : null)
+                .build();
     }
 }
@@ -6,25 +6,25 @@ import org.springframework.stereotype.Service;
 
 import com.packt.blurApp.exceptions.ResourceNotFoundExceptions;
 import com.packt.blurApp.model.RaceParameters;
-import com.packt.blurApp.repository.RaceParametersRepository;
+import com.packt.blurApp.service.catalog.GameCatalog;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class RaceParametersService implements IRaceParametersService {
-  private final RaceParametersRepository raceParametersRepository;
+  private final GameCatalog gameCatalog;
 
   @Override
   public RaceParameters getRaceParameterById(Long id) {
-    return raceParametersRepository.findById(id)
+    return gameCatalog.findRaceParameter(id)
         .orElseThrow(() -> new ResourceNotFoundExceptions("Race Parameters not found!"));
 
   }
 
   @Override
   public List<RaceParameters> getAllRaceParameters() {
-    return raceParametersRepository.findAll();
+    return gameCatalog.getRaceParameters();
   }
 
 }
@@ -0,0 +1,17 @@
+package com.packt.blurApp.service.rating;
+
+import java.util.List;
+
+import com.packt.blurApp.dto.Rating.RatingReplayResultDto;
+import com.packt.blurApp.model.PlayerRating;
+import com.packt.blurApp.model.RatingHistory;
+
+public interface IRatingService {
+    List<PlayerRating> getTopRatings(int limit);
+
+    PlayerRating getUserRating(Long userId);
+
+    List<RatingHistory> getUserHistory(Long userId, int limit);
+
+    RatingReplayResultDto replayAll();
+}
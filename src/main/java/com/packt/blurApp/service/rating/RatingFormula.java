@@ -0,0 +1,55 @@
+package com.packt.blurApp.service.rating;
+
+/**
+ * Multiplayer Elo with an uncertainty term: a race of n racers counts as n - 1 pairwise matches per racer,
+ * and the step size shrinks as the racer's deviation does. Pure and deterministic, shared by the
+ * incremental path and the replay so both produce the same numbers.
+ */
+final class RatingFormula {
+    static final double INITIAL_RATING = 1500;
+    static final double INITIAL_DEVIATION = 350;
+    static final double MIN_DEVIATION = 60;
+    private static final double DEVIATION_DECAY = 0.92;
+    private static final double MAX_K = 64;
+    private static final double MIN_K = 16;
+
+    private RatingFormula() {
+    }
+
+    /**
+     * Rates the racers {@code players[from..to)} (indices into {@code rating} and {@code deviation}),
+     * finishing at {@code ranks[from..to)}, and updates both arrays in place. Equal ranks count as draws.
+     */
+    static void rate(int[] players, int[] ranks, int from, int to, double[] rating, double[] deviation) {
+        int n = to - from;
+        if (n < 2) {
+            return;
+        }
+        double[] delta = new double[n];
+        for (int i = 0; i < n; i++) {
+            double ri = rating[players[from + i]];
+            int rankI = ranks[from + i];
+            double expected = 0;
+            double actual = 0;
+            for (int j = 0; j < n; j++) {
+                if (j == i) {
+                    continue;
+                }
+                expected += 1.0 / (1.0 + Math.pow(10, (rating[players[from + j]] - ri) / 400.0));
+                int rankJ = ranks[from + j];
+                actual += rankI < rankJ ? 1.0 : rankI == rankJ ? 0.5 : 0.0;
+            }
+            delta[i] = kFactor(deviation[players[from + i]]) * (actual - expected) / (n - 1);
+        }
+        for (int i = 0; i < n; i++) {
+            int player = players[from + i];
+            rating[player] += delta[i];
+            deviation[player] = Math.max(MIN_DEVIATION, deviation[player] * DEVIATION_DECAY);
+        }
+    }
+
+    private static double kFactor(double deviation) {
+        double confidence = (deviation - MIN_DEVIATION) / (INITIAL_DEVIATION - MIN_DEVIATION);
+        return MIN_K + (MAX_K - MIN_K) * Math.max(0, Math.min(1, confidence));
+    }
+}
@@ -0,0 +1,157 @@
+package com.packt.blurApp.service.rating;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Re-rates a whole history held in primitive arrays. Races are grouped into waves: the wave of a race is
+ * 1 + the latest wave of any of its players, so races of a wave share no player and everything they depend
+ * on is in earlier waves. Rating a wave in parallel therefore gives exactly the sequential result.
+ */
+final class RatingReplay {
+    final double[] rating;
+    final double[] deviation;
+    final int[] racesRated;
+    // Per result entry, before and after its race
+    final double[] ratingBefore;
+    final double[] deviationBefore;
+    final double[] ratingAfter;
+    final double[] deviationAfter;
+    final int waveCount;
+
+    private RatingReplay(int playerCount, int resultCount, int waveCount) {
+        this.rating = new double[playerCount];
+        this.deviation = new double[playerCount];
+        this.racesRated = new int[playerCount];
+        this.ratingBefore = new double[resultCount];
+        this.deviationBefore = new double[resultCount];
+        this.ratingAfter = new double[resultCount];
+        this.deviationAfter = new double[resultCount];
+        this.waveCount = waveCount;
+        Arrays.fill(rating, RatingFormula.INITIAL_RATING);
+        Arrays.fill(deviation, RatingFormula.INITIAL_DEVIATION);
+    }
+
+    /**
+     * Rates every race of {@code results}; waves of at least {@code parallelWaveSize} races are rated in parallel.
+     */
+    static RatingReplay run(Results results, int parallelWaveSize) {
+        int playerCount = results.userIds.length;
+        int raceCount = results.raceIds.length;
+        int[] lastWave = new int[playerCount];
+        int[] wave = new int[raceCount];
+        int waveCount = 0;
+        for (int race = 0; race < raceCount; race++) {
+            int w = 0;
+            for (int e = results.raceStart[race]; e < results.raceStart[race + 1]; e++) {
+                w = Math.max(w, lastWave[results.players[e]]);
+            }
+            wave[race] = w + 1;
+            for (int e = results.raceStart[race]; e < results.raceStart[race + 1]; e++) {
+                lastWave[results.players[e]] = w + 1;
+            }
+            waveCount = Math.max(waveCount, w + 1);
+        }
+        int[] waveStart = new int[waveCount + 2];
+        for (int race = 0; race < raceCount; race++) {
+            waveStart[wave[race] + 1]++;
+        }
+        for (int w = 1; w < waveStart.length; w++) {
+            waveStart[w] += waveStart[w - 1];
+        }
+        int[] racesByWave = new int[raceCount];
+        int[] fill = Arrays.copyOf(waveStart, waveStart.length);
+        for (int race = 0; race < raceCount; race++) {
+            racesByWave[fill[wave[race]]++] = race;
+        }
+
+        RatingReplay replay = new RatingReplay(playerCount, results.players.length, waveCount);
+        for (int w = 1; w <= waveCount; w++) {
+            IntStream races = IntStream.range(waveStart[w], waveStart[w + 1]);
+            if (waveStart[w + 1] - waveStart[w] >= parallelWaveSize) {
+                races = races.parallel();
+            }
+            races.forEach(i -> replay.rate(results, racesByWave[i]));
+        }
+        return replay;
+    }
+
+    private void rate(Results results, int race) {
+        int from = results.raceStart[race];
+        int to = results.raceStart[race + 1];
+        if (to - from < 2) {
+            return;
+        }
+        for (int e = from; e < to; e++) {
+            ratingBefore[e] = rating[results.players[e]];
+            deviationBefore[e] = deviation[results.players[e]];
+        }
+        RatingFormula.rate(results.players, results.ranks, from, to, rating, deviation);
+        for (int e = from; e < to; e++) {
+            int player = results.players[e];
+            ratingAfter[e] = rating[player];
+            deviationAfter[e] = deviation[player];
+            racesRated[player]++;
+        }
+    }
+
+    // Results in race order: race r owns entries [raceStart[r], raceStart[r + 1]); players are dense numbers
+    record Results(long[] raceIds, int[] raceStart, int[] raceOf, int[] players, int[] ranks, long[] userIds) {
+    }
+
+    static final class ResultsBuilder {
+
+        private final Map<Long, Integer> playerByUser = new HashMap<>();
+        private long[] userIds = new long[1024];
+        private long[] raceIds = new long[1024];
+        private int[] raceStart = new int[1025];
+        private int[] raceOf = new int[4096];
+        private int[] players = new int[4096];
+        private int[] ranks = new int[4096];
+        private int raceCount;
+        private int entryCount;
+
+        void add(long raceId, long userId, int rank) {
+            if (raceCount == 0 || raceIds[raceCount - 1] != raceId) {
+                if (raceCount == raceIds.length) {
+                    raceIds = Arrays.copyOf(raceIds, raceCount * 2);
+                    raceStart = Arrays.copyOf(raceStart, raceCount * 2 + 1);
+                }
+                raceIds[raceCount] = raceId;
+                raceStart[raceCount] = entryCount;
+                raceCount++;
+            }
+            if (entryCount == players.length) {
+                raceOf = Arrays.copyOf(raceOf, entryCount * 2);
+                players = Arrays.copyOf(players, entryCount * 2);
+                ranks = Arrays.copyOf(ranks, entryCount * 2);
+            }
+            Integer player = playerByUser.get(userId);
+            if (player == null) {
+                player = playerByUser.size();
+                playerByUser.put(userId, player);
+                if (player == userIds.length) {
+                    userIds = Arrays.copyOf(userIds, player * 2);
+                }
+                userIds[player] = userId;
+            }
+            raceOf[entryCount] = raceCount - 1;
+            players[entryCount] = player;
+            ranks[entryCount] = rank;
+            entryCount++;
+        }
+
+        Results build() {
+            raceStart[raceCount] = entryCount;
+            return new Results(
+                    Arrays.copyOf(raceIds, raceCount),
+                    Arrays.copyOf(raceStart, raceCount + 1),
+                    Arrays.copyOf(raceOf, entryCount),
+                    Arrays.copyOf(players, entryCount),
+                    Arrays.copyOf(ranks, entryCount),
+                    Arrays.copyOf(userIds, playerByUser.size()));
+        }
+    }
+}
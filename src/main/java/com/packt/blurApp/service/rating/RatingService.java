@@ -0,0 +1,271 @@
+package com.packt.blurApp.service.rating;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.packt.blurApp.dto.Rating.RatingReplayResultDto;
+import com.packt.blurApp.event.RaceStatusChangedEvent;
+import com.packt.blurApp.model.PlayerRating;
+import com.packt.blurApp.model.RatingHistory;
+import com.packt.blurApp.model.enums.RaceStatus;
+import com.packt.blurApp.repository.PlayerRatingRepository;
+import com.packt.blurApp.repository.RatingHistoryRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Skill ratings from race results (see {@link RatingFormula}).
+ * A race is rated once it is completed, from the ranks scored so far; scores added afterwards are
+ * picked up by the next replay. The replay re-rates the whole history from score rows loaded into
+ * primitive arrays indexed by dense player numbers ({@link RatingReplay}), then rewrites both tables with JDBC batches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RatingService implements IRatingService {
+    private static final String RACE_RESULTS = """
+            SELECT s.race_id, s.user_id, s.rank
+            FROM score s JOIN race r ON r.id = s.race_id
+            WHERE r.status = 'COMPLETED' AND s.rank IS NOT NULL
+            ORDER BY COALESCE(r.completed_at, r.created_at), r.id, s.rank, s.user_id
+            """;
+    private static final String INSERT_HISTORY = """
+            INSERT INTO rating_history (race_id, user_id, rank, rating_before, rating_after,
+                                        deviation_before, deviation_after, rated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_RATING = """
+            INSERT INTO player_rating (user_id, rating, deviation, races_rated, updated_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+    // Races of one wave are rated in parallel only when there are enough of them to pay for the fork
+    static final int PARALLEL_WAVE_SIZE = 64;
+
+    private final PlayerRatingRepository playerRatingRepository;
+    private final RatingHistoryRepository ratingHistoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${rating.history.max-limit:200}")
+    private int maxHistoryLimit;
+
+    @Value("${rating.replay.batch-size:1000}")
+    private int replayBatchSize;
+
+    private TransactionTemplate ratingTransaction;
+
+    @PostConstruct
+    void init() {
+        this.ratingTransaction = new TransactionTemplate(transactionManager);
+        this.ratingTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PlayerRating> getTopRatings(int limit) {
+        return playerRatingRepository.findAllByOrderByRatingDescUserIdAsc(PageRequest.of(0, clamp(limit, maxHistoryLimit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PlayerRating getUserRating(Long userId) {
+        return playerRatingRepository.findById(userId).orElseGet(() -> PlayerRating.builder()
+                .userId(userId)
+                .rating(RatingFormula.INITIAL_RATING)
+                .deviation(RatingFormula.INITIAL_DEVIATION)
+                .racesRated(0)
+                .build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RatingHistory> getUserHistory(Long userId, int limit) {
+        return ratingHistoryRepository.findByUserIdOrderByIdDesc(userId, PageRequest.of(0, clamp(limit, maxHistoryLimit)));
+    }
+
+    // Runs in its own transaction after the completing one committed; a failure here never fails the request
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRaceCompleted(RaceStatusChangedEvent event) {
+        if (event.to() != RaceStatus.COMPLETED) {
+            return;
+        }
+        try {
+            ratingTransaction.executeWithoutResult(status -> rateRace(event.raceId()));
+        } catch (RuntimeException e) {
+            log.warn("Unable to rate race {}: {}", event.raceId(), e.getMessage());
+        }
+    }
+
+    private void rateRace(Long raceId) {
+        List<long[]> results = jdbcTemplate.query(
+                "SELECT user_id, rank FROM score WHERE race_id = ? AND rank IS NOT NULL ORDER BY rank, user_id",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getInt(2)},
+                raceId);
+        if (results.size() < 2) {
+            log.debug("Race {} has {} ranked results, not rated", raceId, results.size());
+            return;
+        }
+
+        List<Long> userIds = results.stream().map(result -> result[0]).toList();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO player_rating (user_id, rating, deviation, races_rated, updated_at) " +
+                "VALUES (?, ?, ?, 0, now()) ON CONFLICT (user_id) DO NOTHING",
+                userIds.stream()
+                        .map(id -> new Object[]{id, RatingFormula.INITIAL_RATING, RatingFormula.INITIAL_DEVIATION})
+                        .toList());
+        // Row locks in user id order serialize overlapping races; a running replay holds the table lock
+        Map<Long, double[]> current = new HashMap<>();
+        namedJdbcTemplate.query(
+                "SELECT user_id, rating, deviation FROM player_rating WHERE user_id IN (:ids) ORDER BY user_id FOR UPDATE",
+                new MapSqlParameterSource("ids", userIds),
+                rs -> {
+                    current.put(rs.getLong(1), new double[]{rs.getDouble(2), rs.getDouble(3)});
+                });
+        Boolean alreadyRated = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM rating_history WHERE race_id = ?)", Boolean.class, raceId);
+        if (Boolean.TRUE.equals(alreadyRated)) {
+            return;
+        }
+
+        int n = results.size();
+        int[] players = new int[n];
+        int[] ranks = new int[n];
+        double[] rating = new double[n];
+        double[] deviation = new double[n];
+        for (int i = 0; i < n; i++) {
+            double[] before = current.get(results.get(i)[0]);
+            players[i] = i;
+            ranks[i] = (int) results.get(i)[1];
+            rating[i] = before[0];
+            deviation[i] = before[1];
+        }
+        RatingFormula.rate(players, ranks, 0, n, rating, deviation);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>(n);
+        List<Object[]> history = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long userId = results.get(i)[0];
+            double[] before = current.get(userId);
+            updates.add(new Object[]{rating[i], deviation[i], now, userId});
+            history.add(new Object[]{raceId, userId, ranks[i], before[0], rating[i], before[1], deviation[i], now});
+        }
+        jdbcTemplate.batchUpdate(
+                "UPDATE player_rating SET rating = ?, deviation = ?, races_rated = races_rated + 1, updated_at = ? " +
+                "WHERE user_id = ?",
+                updates);
+        jdbcTemplate.batchUpdate(INSERT_HISTORY, history);
+        log.info("Rated race {} ({} racers)", raceId, n);
+    }
+
+    @Override
+    @Transactional
+    public RatingReplayResultDto replayAll() {
+        long start = System.nanoTime();
+        // Blocks incremental rating until the replay commits: races completed meanwhile are either in the
+        // replayed results or rated right after, never lost or rated twice
+        jdbcTemplate.execute("LOCK TABLE player_rating, rating_history IN EXCLUSIVE MODE");
+
+        RatingReplay.Results results = loadResults();
+        long computeStart = System.nanoTime();
+        RatingReplay replay = RatingReplay.run(results, PARALLEL_WAVE_SIZE);
+        long computeMillis = (System.nanoTime() - computeStart) / 1_000_000;
+        int playerCount = results.userIds().length;
+        int raceCount = results.raceIds().length;
+        int resultCount = results.players().length;
+
+        jdbcTemplate.update("DELETE FROM rating_history");
+        jdbcTemplate.update("DELETE FROM player_rating");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] rated = IntStream.range(0, resultCount)
+                .filter(e -> results.raceStart()[results.raceOf()[e] + 1] - results.raceStart()[results.raceOf()[e]] >= 2)
+                .toArray();
+        batch(INSERT_HISTORY, rated.length, (ps, i) -> {
+            int e = rated[i];
+            ps.setLong(1, results.raceIds()[results.raceOf()[e]]);
+            ps.setLong(2, results.userIds()[results.players()[e]]);
+            ps.setInt(3, results.ranks()[e]);
+            ps.setDouble(4, replay.ratingBefore[e]);
+            ps.setDouble(5, replay.ratingAfter[e]);
+            ps.setDouble(6, replay.deviationBefore[e]);
+            ps.setDouble(7, replay.deviationAfter[e]);
+            ps.setTimestamp(8, now);
+        });
+        int[] ratedPlayers = IntStream.range(0, playerCount).filter(p -> replay.racesRated[p] > 0).toArray();
+        batch(INSERT_RATING, ratedPlayers.length, (ps, i) -> {
+            int p = ratedPlayers[i];
+            ps.setLong(1, results.userIds()[p]);
+            ps.setDouble(2, replay.rating[p]);
+            ps.setDouble(3, replay.deviation[p]);
+            ps.setInt(4, replay.racesRated[p]);
+            ps.setTimestamp(5, now);
+        });
+
+        long totalMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Rating replay: {} races, {} players, {} waves, computed in {} ms, {} ms in total",
+                raceCount, ratedPlayers.length, replay.waveCount, computeMillis, totalMillis);
+        return new RatingReplayResultDto(raceCount, ratedPlayers.length, rated.length, replay.waveCount, computeMillis, totalMillis);
+    }
+
+    private RatingReplay.Results loadResults() {
+        RatingReplay.ResultsBuilder builder = new RatingReplay.ResultsBuilder();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(RACE_RESULTS);
+            statement.setFetchSize(10_000);
+            return statement;
+        }, rs -> {
+            builder.add(rs.getLong(1), rs.getLong(2), rs.getInt(3));
+        });
+        return builder.build();
+    }
+
+    private interface RowSetter {
+        void set(PreparedStatement ps, int i) throws SQLException;
+    }
+
+    private void batch(String sql, int rows, RowSetter setter) {
+        for (int offset = 0; offset < rows; offset += replayBatchSize) {
+            int base = offset;
+            int size = Math.min(replayBatchSize, rows - offset);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    setter.set(ps, base + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+
+    private static int clamp(int limit, int max) {
+        return Math.max(1, Math.min(limit, max));
+    }
+}
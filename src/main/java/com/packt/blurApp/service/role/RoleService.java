@@ -1,5 +1,6 @@
 package com.packt.blurApp.service.role;
 
+import com.packt.blurApp.event.RoleChangedEvent;
 import com.packt.blurApp.exceptions.BadRequestException;
 import com.packt.blurApp.exceptions.ConflictException;
 import com.packt.blurApp.exceptions.ResourceNotFoundExceptions;
@@ -10,6 +11,7 @@ import com.packt.blurApp.repository.RoleRepository;
 import com.packt.blurApp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +25,7 @@ public class RoleService implements IRoleService {
 
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<Role> getAll() {
@@ -63,7 +66,12 @@ public class RoleService implements IRoleService {
             throw new BadRequestException("Cannot modify GREAT_ADMIN role");
         }
         if (description != null) role.setDescription(description);
-        if (permissions != null) role.setPermissions(permissions);
+        if (permissions != null) {
+            role.setPermissions(permissions);
+            // Tokens of every holder embed the old permission set
+            userRepository.bumpAuthVersionForRole(role.getId());
+            eventPublisher.publishEvent(new RoleChangedEvent(role.getId()));
+        }
         return roleRepository.save(role);
     }
 
@@ -87,7 +95,15 @@ public class RoleService implements IRoleService {
 
         var usersWithRoleInSet = userRepository.findAllByRolesContains(role);
         for (var u : usersWithRoleInSet) {
-            u.getRoles().remove(role);
+            u.removeRole(role);
+        }
+
+        // Bump on the loaded entities (not via bulk update) so the saves below do not overwrite it
+        var affectedUsers = new java.util.HashSet<>(usersWithLegacyRole);
+        affectedUsers.addAll(usersWithRoleInSet);
+        affectedUsers.forEach(com.packt.blurApp.model.User::bumpAuthVersion);
+        if (!affectedUsers.isEmpty()) {
+            eventPublisher.publishEvent(new RoleChangedEvent(role.getId()));
         }
 
         if (!usersWithLegacyRole.isEmpty()) {
@@ -0,0 +1,51 @@
+package com.packt.blurApp.service.role;
+
+import com.packt.blurApp.config.security.PermissionMask;
+import com.packt.blurApp.model.Role;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable view of a set of roles: their names (ordered by role id, the first one being the
+ * primary role reported for backward compatibility) and the union of their permissions.
+ */
+public record RoleSnapshot(
+        List<String> roleNames,
+        Set<String> roleNameSet,
+        List<String> permissionNames,
+        Set<String> permissionNameSet
+) {
+
+    public static final RoleSnapshot EMPTY = new RoleSnapshot(List.of(), Set.of(), List.of(), Set.of());
+
+    public static RoleSnapshot of(Collection<Role> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return EMPTY;
+        }
+        List<Role> ordered = roles.stream()
+                .sorted(Comparator.comparing(Role::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+
+        long permissionMask = PermissionMask.NONE;
+        for (Role role : ordered) {
+            permissionMask |= role.getPermissionMask();
+        }
+
+        List<String> roleNames = ordered.stream().map(Role::getName).toList();
+        List<String> permissionNames = PermissionMask.toList(permissionMask).stream().map(Enum::name).toList();
+        return new RoleSnapshot(
+                roleNames,
+                Set.copyOf(new LinkedHashSet<>(roleNames)),
+                permissionNames,
+                Set.copyOf(permissionNames)
+        );
+    }
+
+    public String primaryRole() {
+        return roleNames.isEmpty() ? null : roleNames.get(0);
+    }
+}
@@ -0,0 +1,51 @@
+package com.packt.blurApp.service.role;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.packt.blurApp.event.RoleChangedEvent;
+import com.packt.blurApp.model.Role;
+import com.packt.blurApp.model.User;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Shares one {@link RoleSnapshot} between all users holding the same set of roles. Keyed by the
+ * sorted role ids; cleared whenever a role's permissions change.
+ */
+@Component
+public class RoleSnapshotCache {
+
+    // Distinct role combinations are few; the bound only guards against pathological setups
+    private final Cache<String, RoleSnapshot> snapshots = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .build();
+
+    public RoleSnapshot forUser(User user) {
+        return forRoles(user.getAllRoles());
+    }
+
+    public RoleSnapshot forRoles(Set<Role> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return RoleSnapshot.EMPTY;
+        }
+        if (roles.stream().anyMatch(r -> r.getId() == null)) {
+            // Not persisted yet, nothing stable to key on
+            return RoleSnapshot.of(roles);
+        }
+        String signature = roles.stream()
+                .map(Role::getId)
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        return snapshots.get(signature, key -> RoleSnapshot.of(roles));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        snapshots.invalidateAll();
+    }
+}
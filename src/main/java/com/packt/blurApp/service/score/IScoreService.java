@@ -3,12 +3,15 @@ package com.packt.blurApp.service.score;
 import java.util.List;
 
 import com.packt.blurApp.dto.Score.AddScoreDto;
+import com.packt.blurApp.dto.Score.RaceRankingDto;
 import com.packt.blurApp.model.Score;
 
 public interface IScoreService {
     Score getScoreById(Long scoreId);
     
     Score submitScore(AddScoreDto addScoreDto);
+
+    List<Score> submitRaceScores(Long raceId, List<RaceRankingDto> rankings);
     
     Score updateScore(Long scoreId, AddScoreDto updateScoreDto);
     
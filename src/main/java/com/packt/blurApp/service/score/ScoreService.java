@@ -1,11 +1,19 @@
 package com.packt.blurApp.service.score;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.packt.blurApp.dto.Score.AddScoreDto;
+import com.packt.blurApp.dto.Score.RaceRankingDto;
+import com.packt.blurApp.event.RaceLifecycleEvent;
+import com.packt.blurApp.event.ScoreChangedEvent;
 import com.packt.blurApp.exceptions.BadRequestException;
 import com.packt.blurApp.exceptions.ConflictException;
 import com.packt.blurApp.exceptions.ForbiddenException;
@@ -13,6 +21,7 @@ import com.packt.blurApp.exceptions.ResourceNotFoundExceptions;
 import com.packt.blurApp.model.Race;
 import com.packt.blurApp.model.Score;
 import com.packt.blurApp.model.User;
+import com.packt.blurApp.model.enums.RaceEventType;
 import com.packt.blurApp.model.enums.RaceStatus;
 import com.packt.blurApp.repository.RaceRepository;
 import com.packt.blurApp.repository.ScoreRepository;
@@ -30,6 +39,7 @@ public class ScoreService implements IScoreService {
     private final UserRepository userRepository;
     private final RaceRepository raceRepository;
     private final IUserService userService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Score getScoreById(Long scoreId) {
@@ -43,39 +53,34 @@ public class ScoreService implements IScoreService {
     public Score submitScore(AddScoreDto addScoreDto) {
         log.info("Submitting score for race {} and user {}", addScoreDto.getRaceId(), addScoreDto.getUserId());
         
-        User currentUser = userService.getCurrentUser();
-        
-        Race race = raceRepository.findById(addScoreDto.getRaceId())
-                .orElseThrow(() -> new ResourceNotFoundExceptions("Race not found with ID: " + addScoreDto.getRaceId()));
-        
-        User scoreUser = userRepository.findById(addScoreDto.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundExceptions("User not found with ID: " + addScoreDto.getUserId()));
+        Long currentUserId = userService.getCurrentUserId();
+        Long raceId = addScoreDto.getRaceId();
+        RaceRepository.RaceStateView state = raceRepository.findStateById(raceId)
+                .orElseThrow(() -> new ResourceNotFoundExceptions("Race not found with ID: " + raceId));
         
         // Verify race is in progress or completed
-        if (race.getStatus() != RaceStatus.IN_PROGRESS && race.getStatus() != RaceStatus.COMPLETED) {
+        if (state.getStatus() != RaceStatus.IN_PROGRESS && state.getStatus() != RaceStatus.COMPLETED) {
             throw new BadRequestException("Can only submit scores for races that are in progress or completed");
         }
         
+        List<Long> participantIds = raceRepository.findParticipantIds(raceId);
+        
         // Verify the score user is a participant
-        if (!race.isParticipant(scoreUser)) {
+        if (!participantIds.contains(addScoreDto.getUserId())) {
+            if (!userRepository.existsById(addScoreDto.getUserId())) {
+                throw new ResourceNotFoundExceptions("User not found with ID: " + addScoreDto.getUserId());
+            }
             throw new BadRequestException("User is not a participant in this race");
         }
         
         // New rule: any joined race participant can submit scores.
-        if (!race.isParticipant(currentUser)) {
+        if (!participantIds.contains(currentUserId)) {
             throw new ForbiddenException("Only joined race participants can submit scores for this race");
         }
         
-        // Check if score already exists for this user in this race
-        if (scoreRepository.existsByRaceIdAndUserId(addScoreDto.getRaceId(), addScoreDto.getUserId())) {
-            throw new ConflictException("Score already exists for this user in this race. Use update instead.");
-        }
-        
-        // Calculate score based on rank: points = maxParticipants - rank + 1
-        int maxParticipants = race.getParticipants().size();
-        int rank = addScoreDto.getValue();
-        
         // Validate rank is within valid bounds (1 to maxParticipants)
+        int maxParticipants = participantIds.size();
+        int rank = addScoreDto.getValue();
         if (rank < 1) {
             throw new BadRequestException("Le rang doit être au minimum 1");
         }
@@ -84,36 +89,125 @@ public class ScoreService implements IScoreService {
                 String.format("Le rang doit être au maximum %d (nombre de participants)", maxParticipants));
         }
         
-        int calculatedPoints = maxParticipants - rank + 1;
+        // An overwrite locks the score it replaces first, so the leaderboards subtract what was really there
+        ScoreRepository.ScoreValueView previous = addScoreDto.isOverwrite()
+                ? scoreRepository.lockRankAndValue(raceId, addScoreDto.getUserId()).orElse(null)
+                : null;
         
-        // Create score
-        Score score = Score.builder()
-                .race(race)
-                .user(scoreUser)
-                .submittedBy(currentUser)
-                .value(calculatedPoints)
-                .rank(rank)
-                .build();
-        
-        Score savedScore = scoreRepository.save(score);
-        race.addScore(savedScore);
+        // Single INSERT ... ON CONFLICT against the unique (race_id, user_id): no exists-then-insert window.
+        // Points = maxParticipants - rank + 1 are computed by the statement itself.
+        ScoreRepository.ScoreUpsertView upserted = scoreRepository
+                .upsert(raceId, addScoreDto.getUserId(), currentUserId, rank, addScoreDto.isOverwrite())
+                .orElseThrow(() -> new ConflictException(
+                        "Score already exists for this user in this race. Use update instead."));
+        boolean inserted = Boolean.TRUE.equals(upserted.getInserted());
+        if (!inserted && previous == null) {
+            // Another submit inserted the score after our lock found nothing; its values are unknown here,
+            // so roll back rather than count both scores on the leaderboards
+            throw new ConflictException("Score was submitted concurrently for this user in this race. Please retry.");
+        }
+        Score savedScore = getScoreById(upserted.getId());
         
-        log.info("Score submitted successfully: {} points for user {} in race {}", 
-                addScoreDto.getValue(), scoreUser.getUsername(), race.getId());
+        log.info("Score {} successfully: {} points (rank {}) for user {} in race {}", 
+                inserted ? "submitted" : "replaced", savedScore.getValue(), rank, addScoreDto.getUserId(), raceId);
+        eventPublisher.publishEvent(RaceLifecycleEvent.of(
+                inserted ? RaceEventType.SCORE_SUBMITTED : RaceEventType.SCORE_UPDATED,
+                raceId, state.getPartyId(), List.of(addScoreDto.getUserId())));
+        eventPublisher.publishEvent(new ScoreChangedEvent(raceId, state.getPartyId(), addScoreDto.getUserId(),
+                previous != null ? previous.getRank() : null, previous != null ? previous.getValue() : null,
+                savedScore.getRank(), savedScore.getValue(), scoreRepository.currentTransactionId()));
         
         return savedScore;
     }
 
+    @Override
+    @Transactional
+    public List<Score> submitRaceScores(Long raceId, List<RaceRankingDto> rankings) {
+        log.info("Submitting {} scores for race {}", rankings.size(), raceId);
+        
+        Long currentUserId = userService.getCurrentUserId();
+        RaceRepository.RaceStateView state = raceRepository.findStateById(raceId)
+                .orElseThrow(() -> new ResourceNotFoundExceptions("Race not found with ID: " + raceId));
+        
+        if (state.getStatus() != RaceStatus.IN_PROGRESS && state.getStatus() != RaceStatus.COMPLETED) {
+            throw new BadRequestException("Can only submit scores for races that are in progress or completed");
+        }
+        
+        Set<Long> participantIds = new HashSet<>(raceRepository.findParticipantIds(raceId));
+        if (!participantIds.contains(currentUserId)) {
+            throw new ForbiddenException("Only joined race participants can submit scores for this race");
+        }
+        
+        // The ranking must cover every participant exactly once with ranks 1..n
+        int maxParticipants = participantIds.size();
+        if (rankings.size() != maxParticipants) {
+            throw new BadRequestException(String.format(
+                    "Le classement doit contenir %d participants (reçu %d)", maxParticipants, rankings.size()));
+        }
+        boolean[] rankTaken = new boolean[maxParticipants + 1];
+        Set<Long> rankedUsers = new HashSet<>();
+        for (RaceRankingDto ranking : rankings) {
+            int rank = ranking.getRank();
+            if (rank < 1 || rank > maxParticipants) {
+                throw new BadRequestException(
+                        String.format("Le rang doit être compris entre 1 et %d (nombre de participants)", maxParticipants));
+            }
+            if (rankTaken[rank]) {
+                throw new BadRequestException("Le rang " + rank + " est attribué plusieurs fois");
+            }
+            rankTaken[rank] = true;
+            if (!participantIds.contains(ranking.getUserId())) {
+                throw new BadRequestException("User " + ranking.getUserId() + " is not a participant in this race");
+            }
+            if (!rankedUsers.add(ranking.getUserId())) {
+                throw new BadRequestException("User " + ranking.getUserId() + " is ranked more than once");
+            }
+        }
+        
+        if (scoreRepository.existsByRaceId(raceId)) {
+            throw new ConflictException("Scores already exist for this race. Use update instead.");
+        }
+        
+        Race race = raceRepository.getReferenceById(raceId);
+        User currentUser = userRepository.getReferenceById(currentUserId);
+        List<Score> scores = new ArrayList<>(rankings.size());
+        for (RaceRankingDto ranking : rankings) {
+            scores.add(Score.builder()
+                    .race(race)
+                    .user(userRepository.getReferenceById(ranking.getUserId()))
+                    .submittedBy(currentUser)
+                    .value(maxParticipants - ranking.getRank() + 1)
+                    .rank(ranking.getRank())
+                    .build());
+        }
+        // Pooled sequence ids: the rows go out as one JDBC batch
+        scoreRepository.saveAll(scores);
+        
+        log.info("{} scores submitted for race {}", scores.size(), raceId);
+        eventPublisher.publishEvent(RaceLifecycleEvent.of(RaceEventType.SCORE_SUBMITTED, raceId, state.getPartyId(),
+                List.copyOf(rankedUsers)));
+        Long transactionId = scoreRepository.currentTransactionId();
+        for (Score score : scores) {
+            eventPublisher.publishEvent(new ScoreChangedEvent(raceId, state.getPartyId(), score.getUser().getId(),
+                    null, null, score.getRank(), score.getValue(), transactionId));
+        }
+        
+        // Final standings, users fetched in the same query
+        List<Score> standings = new ArrayList<>(scoreRepository.findByRaceId(raceId));
+        standings.sort(Comparator.comparingInt(Score::getRank));
+        return standings;
+    }
+
     @Override
     @Transactional
     public Score updateScore(Long scoreId, AddScoreDto updateScoreDto) {
         log.info("Updating score {}", scoreId);
         
-        User currentUser = userService.getCurrentUser();
+        Long currentUserId = userService.getCurrentUserId();
         Score score = getScoreById(scoreId);
         
         // New rule: any joined race participant can update scores.
-        if (!score.getRace().isParticipant(currentUser)) {
+        if (!score.getRace().isParticipant(currentUserId)) {
             throw new ForbiddenException("Only joined race participants can update scores");
         }
         
@@ -137,11 +231,15 @@ public class ScoreService implements IScoreService {
         
         int calculatedPoints = maxParticipants - rank + 1;
         
+        Integer previousRank = score.getRank();
+        Integer previousPoints = score.getValue();
         score.setValue(calculatedPoints);
         score.setRank(rank);
         Score updatedScore = scoreRepository.save(score);
         
         log.info("Score {} updated successfully to {} points (rank: {})", scoreId, calculatedPoints, rank);
+        publish(RaceEventType.SCORE_UPDATED, score.getRace(), score.getUser() != null ? score.getUser().getId() : null);
+        publishScoreChange(score, previousRank, previousPoints, rank, calculatedPoints);
         return updatedScore;
     }
 
@@ -173,15 +271,33 @@ public class ScoreService implements IScoreService {
     public void deleteScore(Long scoreId) {
         log.info("Deleting score {}", scoreId);
         
-        User currentUser = userService.getCurrentUser();
+        Long currentUserId = userService.getCurrentUserId();
         Score score = getScoreById(scoreId);
         
         // New rule: any joined race participant can delete scores.
-        if (!score.getRace().isParticipant(currentUser)) {
+        if (!score.getRace().isParticipant(currentUserId)) {
             throw new ForbiddenException("Only joined race participants can delete scores");
         }
         
         scoreRepository.delete(score);
         log.info("Score {} deleted successfully", scoreId);
+        publish(RaceEventType.SCORE_DELETED, score.getRace(), score.getUser() != null ? score.getUser().getId() : null);
+        publishScoreChange(score, score.getRank(), score.getValue(), null, null);
+    }
+
+    // Applied to the leaderboards once the transaction commits
+    private void publishScoreChange(Score score, Integer previousRank, Integer previousPoints, Integer rank, Integer points) {
+        Race race = score.getRace();
+        Long partyId = race.getParty() != null ? race.getParty().getId() : null;
+        eventPublisher.publishEvent(new ScoreChangedEvent(race.getId(), partyId,
+                score.getUser() != null ? score.getUser().getId() : null, previousRank, previousPoints, rank, points,
+                scoreRepository.currentTransactionId()));
+    }
+
+    // Delivered to race stream subscribers once the transaction commits
+    private void publish(RaceEventType type, Race race, Long userId) {
+        Long partyId = race.getParty() != null ? race.getParty().getId() : null;
+        eventPublisher.publishEvent(RaceLifecycleEvent.of(type, race.getId(), partyId,
+                userId != null ? List.of(userId) : List.of()));
     }
 }
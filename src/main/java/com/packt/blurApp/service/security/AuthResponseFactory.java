@@ -0,0 +1,44 @@
+package com.packt.blurApp.service.security;
+
+import com.packt.blurApp.config.security.JwtService;
+import com.packt.blurApp.model.User;
+import com.packt.blurApp.response.AuthResponse;
+import com.packt.blurApp.service.role.RoleSnapshot;
+import com.packt.blurApp.service.role.RoleSnapshotCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the login/register/refresh responses from the shared role snapshot of the user.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthResponseFactory {
+
+    private final RoleSnapshotCache roleSnapshotCache;
+    private final JwtService jwtService;
+
+    public AuthResponse build(User user, String message, String accessToken, String refreshToken) {
+        RoleSnapshot snapshot = roleSnapshotCache.forUser(user);
+        String primaryRole = snapshot.primaryRole() != null
+                ? snapshot.primaryRole()
+                : (user.getRole() != null ? user.getRole().getName() : null);
+
+        return AuthResponse.builder()
+                .success(true)
+                .message(message)
+                .token(accessToken)
+                .refreshToken(refreshToken)
+                .tokenType("Bearer")
+                .expiresIn(jwtService.getExpirationTime())
+                .user(AuthResponse.UserInfo.builder()
+                        .id(user.getId())
+                        .username(user.getUsername())
+                        .email(user.getEmail())
+                        .role(primaryRole)
+                        .roles(snapshot.roleNames())
+                        .permissions(snapshot.permissionNames())
+                        .build())
+                .build();
+    }
+}
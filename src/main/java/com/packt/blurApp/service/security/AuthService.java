@@ -7,11 +7,12 @@ import com.packt.blurApp.exceptions.ConflictException;
 import com.packt.blurApp.exceptions.UnauthorizedException;
 import com.packt.blurApp.model.Role;
 import com.packt.blurApp.model.User;
-import com.packt.blurApp.model.enums.PermissionType;
 import com.packt.blurApp.config.security.RoleNames;
 import com.packt.blurApp.repository.RoleRepository;
 import com.packt.blurApp.repository.UserRepository;
 import com.packt.blurApp.response.AuthResponse;
+import com.packt.blurApp.service.user.LastLoginBuffer;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -23,7 +24,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.stream.Collectors;
+import java.time.ZoneId;
 
 @Slf4j
 @Service
@@ -35,11 +36,18 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final LoginAttemptService loginAttemptService;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthResponseFactory authResponseFactory;
+    private final LastLoginBuffer lastLoginBuffer;
 
     @Transactional
     public AuthResponse login(UserSignInDto request) {
         log.info("Login attempt for user: {}", request.getUserName());
 
+        // Reject hammered usernames before spending any BCrypt work on them
+        loginAttemptService.checkAndRecordAttempt(request.getUserName());
+
         try {
             // Authenticate user
             Authentication authentication = authenticationManager.authenticate(
@@ -51,10 +59,11 @@ public class AuthService {
 
             // Get user details
             User user = (User) authentication.getPrincipal();
+            loginAttemptService.loginSucceeded(request.getUserName());
 
-            // Update last login
-            user.setLastLogin(LocalDateTime.now());
-            userRepository.save(user);
+            // Last login is buffered and written in batches by LastLoginBuffer. The principal is a managed
+            // entity here, so it must not be modified: that would bring back a full-row UPDATE per login.
+            lastLoginBuffer.record(user.getId(), LocalDateTime.now());
 
             // Generate tokens
             String accessToken = jwtService.generateToken(user);
@@ -62,31 +71,7 @@ public class AuthService {
 
             log.info("User '{}' logged in successfully", user.getUsername());
 
-            // Build roles and permissions (union)
-            var allRoles = user.getAllRoles();
-            var rolesList = allRoles.stream().map(Role::getName).collect(Collectors.toList());
-            var permissionsList = allRoles.stream()
-                    .flatMap(r -> r.getPermissions().stream())
-                    .map(PermissionType::name)
-                    .distinct()
-                    .collect(Collectors.toList());
-
-            return AuthResponse.builder()
-                    .success(true)
-                    .message("Login successful")
-                    .token(accessToken)
-                    .refreshToken(refreshToken)
-                    .tokenType("Bearer")
-                    .expiresIn(jwtService.getExpirationTime())
-                    .user(AuthResponse.UserInfo.builder()
-                            .id(user.getId())
-                            .username(user.getUsername())
-                            .email(user.getEmail())
-                            .role(!rolesList.isEmpty() ? rolesList.get(0) : (user.getRole() != null ? user.getRole().getName() : null))
-                            .roles(rolesList)
-                            .permissions(permissionsList)
-                            .build())
-                    .build();
+            return authResponseFactory.build(user, "Login successful", accessToken, refreshToken);
 
         } catch (AuthenticationException e) {
             log.error("Authentication failed for user: {}", request.getUserName());
@@ -133,30 +118,7 @@ public class AuthService {
 
         log.info("User '{}' registered successfully", user.getUsername());
 
-        var allRoles = user.getAllRoles();
-        var rolesList = allRoles.stream().map(Role::getName).collect(Collectors.toList());
-        var permissionsList = allRoles.stream()
-                .flatMap(r -> r.getPermissions().stream())
-                .map(PermissionType::name)
-                .distinct()
-                .collect(Collectors.toList());
-
-        return AuthResponse.builder()
-                .success(true)
-                .message("Registration successful")
-                .token(accessToken)
-                .refreshToken(refreshToken)
-                .tokenType("Bearer")
-                .expiresIn(jwtService.getExpirationTime())
-                .user(AuthResponse.UserInfo.builder()
-                        .id(user.getId())
-                        .username(user.getUsername())
-                        .email(user.getEmail())
-                        .role(!rolesList.isEmpty() ? rolesList.get(0) : (user.getRole() != null ? user.getRole().getName() : null))
-                        .roles(rolesList)
-                        .permissions(permissionsList)
-                        .build())
-                .build();
+        return authResponseFactory.build(user, "Registration successful", accessToken, refreshToken);
     }
 
     @Transactional
@@ -164,51 +126,70 @@ public class AuthService {
         log.info("Refresh token request");
 
         try {
-            // Extract username from refresh token
-            String username = jwtService.extractUsername(refreshToken);
+            // Verify the refresh token and read its claims
+            Claims claims = jwtService.verify(refreshToken);
+            String username = claims.getSubject();
+            if (!jwtService.isRefreshToken(claims) || claims.getId() == null) {
+                throw new UnauthorizedException("Invalid refresh token");
+            }
 
             // Load user
             User user = userRepository.findByUserName(username)
                     .orElseThrow(() -> new UnauthorizedException("User not found"));
 
             // Validate refresh token
-            if (!jwtService.isTokenValid(refreshToken, user)) {
+            if (!jwtService.isTokenValid(claims, user) || isIssuedBeforePasswordChange(claims, user)) {
                 throw new UnauthorizedException("Invalid refresh token");
             }
 
-            // Generate new access token
+            // Rotate: each refresh token is single-use. A failed revoke means it was already used or logged out.
+            if (!refreshTokenService.revoke(claims.getId(), user.getId(), claims.getExpiration())) {
+                log.warn("Revoked refresh token presented for user: {}", username);
+                throw new UnauthorizedException("Invalid refresh token");
+            }
+
+            // Generate new access and refresh tokens
             String accessToken = jwtService.generateToken(user);
+            String rotatedRefreshToken = jwtService.generateRefreshToken(user);
 
             log.info("Token refreshed successfully for user: {}", username);
 
-            var allRoles = user.getAllRoles();
-            var rolesList = allRoles.stream().map(Role::getName).collect(Collectors.toList());
-            var permissionsList = allRoles.stream()
-                    .flatMap(r -> r.getPermissions().stream())
-                    .map(PermissionType::name)
-                    .distinct()
-                    .collect(Collectors.toList());
-
-            return AuthResponse.builder()
-                    .success(true)
-                    .message("Token refreshed successfully")
-                    .token(accessToken)
-                    .refreshToken(refreshToken)
-                    .tokenType("Bearer")
-                    .expiresIn(jwtService.getExpirationTime())
-                    .user(AuthResponse.UserInfo.builder()
-                            .id(user.getId())
-                            .username(user.getUsername())
-                            .email(user.getEmail())
-                            .role(!rolesList.isEmpty() ? rolesList.get(0) : (user.getRole() != null ? user.getRole().getName() : null))
-                            .roles(rolesList)
-                            .permissions(permissionsList)
-                            .build())
-                    .build();
+            return authResponseFactory.build(user, "Token refreshed successfully", accessToken, rotatedRefreshToken);
 
         } catch (Exception e) {
             log.error("Token refresh failed: {}", e.getMessage());
             throw new UnauthorizedException("Invalid refresh token");
         }
     }
+
+    @Transactional
+    public void logout(String refreshToken) {
+        log.info("Logout request");
+
+        Claims claims;
+        try {
+            claims = jwtService.verify(refreshToken);
+        } catch (Exception e) {
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+        if (!jwtService.isRefreshToken(claims) || claims.getId() == null) {
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+
+        Long userId = userRepository.findByUserName(claims.getSubject()).map(User::getId).orElse(null);
+        // Idempotent: logging out twice with the same token is not an error
+        refreshTokenService.revoke(claims.getId(), userId, claims.getExpiration());
+        log.info("User '{}' logged out", claims.getSubject());
+    }
+
+    private boolean isIssuedBeforePasswordChange(Claims claims, User user) {
+        Long issuedAt = jwtService.issuedAtMillis(claims);
+        if (user.getPasswordChangedAt() == null || issuedAt == null) {
+            return false;
+        }
+        long changedAt = user.getPasswordChangedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // A token from the very millisecond of the change (or, for legacy tokens, the same second) cannot be
+        // ordered against it and is rejected
+        return issuedAt <= changedAt;
+    }
 }
@@ -0,0 +1,63 @@
+package com.packt.blurApp.service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.packt.blurApp.event.RoleChangedEvent;
+import com.packt.blurApp.event.UserSecurityChangedEvent;
+import com.packt.blurApp.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of users' auth versions, used to reject stateless tokens issued before a
+ * role, permission or account change.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuthVersionService {
+
+    // Cached for users that no longer exist so that their tokens keep failing without a query each time
+    private static final long MISSING = -1L;
+
+    private final UserRepository userRepository;
+
+    @Value("${jwt.stateless.version-cache-ttl-seconds:5}")
+    private long versionCacheTtlSeconds;
+
+    @Value("${jwt.stateless.version-cache-max-size:10000}")
+    private long versionCacheMaxSize;
+
+    private Cache<Long, Long> versions;
+
+    @PostConstruct
+    void init() {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(versionCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(versionCacheTtlSeconds))
+                .build();
+    }
+
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        Long current = versions.get(userId, id -> userRepository.findAuthVersionById(id).orElse(MISSING));
+        return current != null && current != MISSING && current == tokenVersion;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        versions.invalidate(event.userId());
+    }
+
+    // After commit: evicting earlier would let a concurrent request re-cache the old version
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        versions.invalidateAll();
+    }
+}
@@ -0,0 +1,59 @@
+package com.packt.blurApp.service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.packt.blurApp.exceptions.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-username login throttle: at most {@code maxAttempts} attempts per fixed window, counted from
+ * the first attempt. Checked before any password hashing happens; a successful login resets it.
+ */
+@Slf4j
+@Service
+public class LoginAttemptService {
+
+    @Value("${security.login-throttle.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${security.login-throttle.window-seconds:60}")
+    private long windowSeconds;
+
+    private Cache<String, AtomicInteger> attempts;
+
+    @PostConstruct
+    void init() {
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(windowSeconds))
+                .build();
+    }
+
+    public void checkAndRecordAttempt(String username) {
+        if (username == null) {
+            return;
+        }
+        int count = attempts.get(key(username), k -> new AtomicInteger()).incrementAndGet();
+        if (count > maxAttempts) {
+            log.warn("Too many login attempts for user: {}", username);
+            throw new TooManyRequestsException("Too many login attempts, please try again later", windowSeconds);
+        }
+    }
+
+    public void loginSucceeded(String username) {
+        if (username != null) {
+            attempts.invalidate(key(username));
+        }
+    }
+
+    private static String key(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+}
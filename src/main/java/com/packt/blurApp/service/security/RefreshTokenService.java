@@ -0,0 +1,53 @@
+package com.packt.blurApp.service.security;
+
+import com.packt.blurApp.repository.RevokedRefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Revocation store for refresh tokens. Every refresh revokes the presented token with one
+ * {@code INSERT ... ON CONFLICT DO NOTHING}, which is also the reuse check, so there is no separate lookup.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private final RevokedRefreshTokenRepository revokedRefreshTokenRepository;
+
+    @Value("${jwt.refresh-token.revocation.sweep-batch-size:1000}")
+    private int sweepBatchSize;
+
+    /**
+     * Revokes the token id. Returns false if it was already revoked (for rotation: the token was reused).
+     */
+    public boolean revoke(String jti, Long userId, Date expiresAt) {
+        LocalDateTime expiry = LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault());
+        return revokedRefreshTokenRepository.revoke(jti, userId, expiry) == 1;
+    }
+
+    @Scheduled(
+            initialDelayString = "${jwt.refresh-token.revocation.sweep-interval-ms:3600000}",
+            fixedDelayString = "${jwt.refresh-token.revocation.sweep-interval-ms:3600000}"
+    )
+    public void sweepExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = revokedRefreshTokenRepository.deleteExpiredBatch(now, sweepBatchSize);
+            total += deleted;
+        } while (deleted == sweepBatchSize);
+
+        if (total > 0) {
+            log.info("Purged {} expired revoked refresh tokens", total);
+        }
+    }
+}
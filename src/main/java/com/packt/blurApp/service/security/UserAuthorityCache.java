@@ -0,0 +1,87 @@
+package com.packt.blurApp.service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.packt.blurApp.config.security.AuthenticatedUser;
+import com.packt.blurApp.event.RoleChangedEvent;
+import com.packt.blurApp.event.UserSecurityChangedEvent;
+import com.packt.blurApp.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable authority snapshots of token-authenticated users, so the authentication filter does not
+ * load the user, its roles and their permissions on every request.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserAuthorityCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${security.authority-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${security.authority-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private Cache<String, AuthenticatedUser> snapshots;
+
+    @PostConstruct
+    void init() {
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public AuthenticatedUser get(String username) {
+        return snapshots.get(username, this::load);
+    }
+
+    private AuthenticatedUser load(String username) {
+        log.debug("Loading authority snapshot for user: {}", username);
+        return userRepository.findByUserName(username)
+                .map(AuthenticatedUser::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        if (event.username() != null) {
+            snapshots.invalidate(event.username());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        // Any cached user may hold the role
+        snapshots.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = snapshots.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", snapshots.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        result.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1_000_000d);
+        return result;
+    }
+}
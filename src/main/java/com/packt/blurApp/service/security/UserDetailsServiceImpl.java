@@ -1,10 +1,12 @@
 package com.packt.blurApp.service.security;
 
 import com.packt.blurApp.exceptions.ResourceNotFoundExceptions;
+import com.packt.blurApp.model.User;
 import com.packt.blurApp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -13,7 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -25,4 +27,21 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return userRepository.findByUserName(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
     }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        log.info("Re-hashing password of user '{}' with the configured BCrypt cost", user.getUsername());
+
+        User managed = userRepository.findByUserName(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + user.getUsername()));
+        managed.setPassword(newPassword);
+
+        // The authenticated principal is the instance loaded before the upgrade; keep it in sync so a
+        // later save of that instance does not write the old hash back.
+        if (user instanceof User principal) {
+            principal.setPassword(newPassword);
+        }
+        return userRepository.save(managed);
+    }
 }
@@ -0,0 +1,12 @@
+package com.packt.blurApp.service.statistics;
+
+import java.util.List;
+
+import com.packt.blurApp.dto.Statistics.UserRaceResultDto;
+import com.packt.blurApp.dto.Statistics.UserStatisticsDto;
+
+public interface IStatisticsService {
+    UserStatisticsDto getUserStatistics(Long userId);
+
+    List<UserRaceResultDto> getUserResults(Long userId, Long cursor, Integer size);
+}
@@ -0,0 +1,139 @@
+package com.packt.blurApp.service.statistics;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.packt.blurApp.dto.Statistics.FavouriteDto;
+import com.packt.blurApp.dto.Statistics.UserRaceResultDto;
+import com.packt.blurApp.dto.Statistics.UserStatisticsDto;
+import com.packt.blurApp.event.RaceLifecycleEvent;
+import com.packt.blurApp.event.ScoreChangedEvent;
+import com.packt.blurApp.exceptions.ResourceNotFoundExceptions;
+import com.packt.blurApp.model.enums.RaceStatus;
+import com.packt.blurApp.repository.AttributionRepository;
+import com.packt.blurApp.repository.RaceRepository;
+import com.packt.blurApp.repository.ScoreRepository;
+import com.packt.blurApp.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user racing statistics computed by grouped queries over score, race_participants and attribution.
+ * Results are cached per user; score changes and race joins evict the users they concern, and the TTL
+ * bounds staleness for everything else (status changes, car assignments).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatisticsService implements IStatisticsService {
+    private final ScoreRepository scoreRepository;
+    private final RaceRepository raceRepository;
+    private final AttributionRepository attributionRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${statistics.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    @Value("${statistics.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${statistics.history.default-page-size:20}")
+    private int defaultHistoryPageSize;
+
+    @Value("${statistics.history.max-page-size:100}")
+    private int maxHistoryPageSize;
+
+    private Cache<Long, UserStatisticsDto> cache;
+    private TransactionTemplate statisticsTransaction;
+
+    @PostConstruct
+    void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+        this.statisticsTransaction = new TransactionTemplate(transactionManager);
+        this.statisticsTransaction.setReadOnly(true);
+    }
+
+    // Not @Transactional: a cache hit must not borrow a connection. The computation runs inside the
+    // cache's atomic load, so an invalidation that lands meanwhile waits for it and then removes its result
+    // instead of being overwritten by a value read before the change.
+    @Override
+    public UserStatisticsDto getUserStatistics(Long userId) {
+        return cache.get(userId, id -> statisticsTransaction.execute(status -> compute(id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserRaceResultDto> getUserResults(Long userId, Long cursor, Integer size) {
+        int pageSize = size == null || size < 1 ? defaultHistoryPageSize : Math.min(size, maxHistoryPageSize);
+        return scoreRepository.findResultsByUserId(userId, cursor != null ? cursor : Long.MAX_VALUE,
+                PageRequest.of(0, pageSize));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onScoreChanged(ScoreChangedEvent event) {
+        if (event.userId() != null) {
+            cache.invalidate(event.userId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRaceEvent(RaceLifecycleEvent event) {
+        // Joins and leaves name their users; the batch score event names every ranked racer
+        cache.invalidateAll(event.userIds());
+    }
+
+    private UserStatisticsDto compute(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundExceptions("User not found with ID: " + userId);
+        }
+        Map<RaceStatus, Long> byStatus = new EnumMap<>(RaceStatus.class);
+        long racesPlayed = 0;
+        for (RaceRepository.StatusTotalView view : raceRepository.countByParticipantGroupByStatus(userId)) {
+            if (view.getStatus() != null) {
+                byStatus.put(view.getStatus(), view.getTotal());
+            }
+            racesPlayed += view.getTotal();
+        }
+        ScoreRepository.UserScoreStatsView scores = scoreRepository.aggregateForUser(userId);
+        return UserStatisticsDto.builder()
+                .userId(userId)
+                .racesPlayed(racesPlayed)
+                .racesByStatus(byStatus)
+                .racesScored(scores.getRacesScored())
+                .averageRank(scores.getAverageRank())
+                .bestRank(scores.getBestRank())
+                .wins(scores.getWins())
+                .podiums(scores.getPodiums())
+                .points(scores.getPoints())
+                .favouriteCar(first(attributionRepository.findCarUsageByParticipant(userId, PageRequest.of(0, 1))))
+                .favouriteCard(first(raceRepository.findCardUsageByParticipant(userId, PageRequest.of(0, 1))))
+                .build();
+    }
+
+    private static FavouriteDto first(List<RaceRepository.UsageView> usage) {
+        if (usage.isEmpty()) {
+            return null;
+        }
+        RaceRepository.UsageView top = usage.get(0);
+        return new FavouriteDto(top.getId(), top.getName(), top.getRaces());
+    }
+}
@@ -0,0 +1,241 @@
+package com.packt.blurApp.service.stream;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.packt.blurApp.event.RaceLifecycleEvent;
+import com.packt.blurApp.exceptions.TooManyRequestsException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans race lifecycle events out to Server-Sent Events subscribers of a party or a race.
+ * Each event is serialized to JSON bytes once and the same frame is queued for every subscriber.
+ * Writes happen on a small dispatcher pool, never on the committing request thread; a subscriber
+ * whose bounded queue is full is considered too slow and is disconnected.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RaceEventBroadcaster {
+    private final ObjectMapper objectMapper;
+
+    @Value("${race.events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${race.events.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${race.events.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    @Value("${race.events.max-connections:1000}")
+    private int maxConnections;
+
+    private final Map<Long, Set<Subscriber>> partySubscribers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> raceSubscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong eventsPublished = new AtomicLong();
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong slowSubscribersDropped = new AtomicLong();
+    private final AtomicLong eventSequence = new AtomicLong();
+
+    private ExecutorService dispatcher;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "race-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        closeAll(partySubscribers);
+        closeAll(raceSubscribers);
+        dispatcher.shutdownNow();
+    }
+
+    public SseEmitter subscribeToParty(Long partyId) {
+        return subscribe(partySubscribers, partyId);
+    }
+
+    public SseEmitter subscribeToRace(Long raceId) {
+        return subscribe(raceSubscribers, raceId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRaceEvent(RaceLifecycleEvent event) {
+        Set<Subscriber> forParty = event.partyId() == null ? Set.of() : partySubscribers.getOrDefault(event.partyId(), Set.of());
+        Set<Subscriber> forRace = raceSubscribers.getOrDefault(event.raceId(), Set.of());
+        eventsPublished.incrementAndGet();
+        if (forParty.isEmpty() && forRace.isEmpty()) {
+            return;
+        }
+
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Unable to serialize race event {} for race {}: {}", event.type(), event.raceId(), e.getMessage());
+            return;
+        }
+        // byte[] data is written as-is by the byte array converter, so every subscriber gets the same buffer
+        Set<DataWithMediaType> frame = SseEmitter.event()
+                .id(String.valueOf(eventSequence.incrementAndGet()))
+                .name(event.type().name())
+                .data(payload)
+                .build();
+        forParty.forEach(subscriber -> subscriber.enqueue(frame));
+        forRace.forEach(subscriber -> subscriber.enqueue(frame));
+    }
+
+    // Keeps idle connections open through proxies and detects disconnected clients
+    @Scheduled(
+            initialDelayString = "${race.events.heartbeat-interval-ms:15000}",
+            fixedRateString = "${race.events.heartbeat-interval-ms:15000}"
+    )
+    public void sendHeartbeats() {
+        if (connections.get() == 0) {
+            return;
+        }
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        partySubscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.enqueue(heartbeat)));
+        raceSubscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.enqueue(heartbeat)));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("connections", connections.get());
+        stats.put("partyChannels", partySubscribers.size());
+        stats.put("raceChannels", raceSubscribers.size());
+        stats.put("eventsPublished", eventsPublished.get());
+        stats.put("framesSent", framesSent.get());
+        stats.put("slowSubscribersDropped", slowSubscribersDropped.get());
+        return stats;
+    }
+
+    private SseEmitter subscribe(Map<Long, Set<Subscriber>> registry, Long key) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new TooManyRequestsException("Too many open event streams, try again later", 30);
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, registry, key);
+        // compute() so the add cannot interleave with the last subscriber removing the channel
+        registry.compute(key, (k, set) -> {
+            Set<Subscriber> subscribers = set == null ? ConcurrentHashMap.newKeySet() : set;
+            subscribers.add(subscriber);
+            return subscribers;
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        // Sent right away so the response is committed and the client sees the stream open
+        subscriber.enqueue(SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    private void closeAll(Map<Long, Set<Subscriber>> registry) {
+        registry.values().forEach(set -> set.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.emitter.complete();
+        }));
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Map<Long, Set<Subscriber>> registry;
+        private final Long key;
+        private final BlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Map<Long, Set<Subscriber>> registry, Long key) {
+            this.emitter = emitter;
+            this.registry = registry;
+            this.key = key;
+        }
+
+        void enqueue(Set<DataWithMediaType> frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(frame)) {
+                slowSubscribersDropped.incrementAndGet();
+                log.debug("Dropping slow event stream subscriber ({} frames pending)", queue.size());
+                close();
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> frame;
+                while (!closed.get() && (frame = queue.poll()) != null) {
+                    emitter.send(frame);
+                    framesSent.incrementAndGet();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                close();
+            } finally {
+                draining.set(false);
+                if (!closed.get() && !queue.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                registry.computeIfPresent(key, (k, set) -> {
+                    set.remove(this);
+                    return set.isEmpty() ? null : set;
+                });
+                connections.decrementAndGet();
+                queue.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.packt.blurApp.service.user;
+
+import com.packt.blurApp.model.User;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Remembers the current user for the duration of an HTTP request. The stored entity is only handed
+ * out again while it is managed by the current persistence context, so callers in a later
+ * transaction of the same request get a fresh, attached instance instead of a detached one.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserHolder {
+
+    private static final String ATTRIBUTE = CurrentUserHolder.class.getName() + ".USER";
+
+    private final EntityManager entityManager;
+
+    public User get() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object user = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (user instanceof User cached && entityManager.contains(cached)) {
+            return cached;
+        }
+        return null;
+    }
+
+    public void set(User user) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
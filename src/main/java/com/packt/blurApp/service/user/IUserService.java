@@ -27,4 +27,6 @@ public interface IUserService {
     List<User> getAllUsers();
     
     User getCurrentUser();
+
+    Long getCurrentUserId();
 }
@@ -0,0 +1,78 @@
+package com.packt.blurApp.service.user;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for {@code app_user.last_login}. Logins only record the timestamp in memory;
+ * a scheduled flush (and one on shutdown) writes them as a single JDBC batch, touching only that
+ * column so {@code updated_at} is left alone.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastLoginBuffer {
+
+    private static final String UPDATE_LAST_LOGIN =
+            "UPDATE app_user SET last_login = ? WHERE id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public void record(Long userId, LocalDateTime loginTime) {
+        if (userId != null) {
+            pending.merge(userId, loginTime, (previous, current) -> current.isAfter(previous) ? current : previous);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${security.last-login.flush-interval-ms:10000}",
+            fixedDelayString = "${security.last-login.flush-interval-ms:10000}"
+    )
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // remove() per key so logins recorded during the flush stay pending for the next one
+        List<Object[]> batch = new ArrayList<>(pending.size());
+        for (Long userId : pending.keySet()) {
+            LocalDateTime loginTime = pending.remove(userId);
+            if (loginTime != null) {
+                Timestamp timestamp = Timestamp.valueOf(loginTime);
+                batch.add(new Object[]{timestamp, userId, timestamp});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, batch);
+            log.debug("Flushed last login time of {} users", batch.size());
+        } catch (Exception e) {
+            // Put the entries back (unless a newer login replaced them) and retry on the next flush
+            log.warn("Unable to flush last login times: {}", e.getMessage());
+            for (Object[] row : batch) {
+                record((Long) row[1], ((Timestamp) row[0]).toLocalDateTime());
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
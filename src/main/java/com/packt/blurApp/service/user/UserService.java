@@ -2,6 +2,7 @@ package com.packt.blurApp.service.user;
 
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -10,6 +11,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.packt.blurApp.dto.User.AddUserDto;
 import com.packt.blurApp.dto.User.UserUpdateDto;
+import com.packt.blurApp.event.UserSecurityChangedEvent;
 import com.packt.blurApp.exceptions.BadRequestException;
 import com.packt.blurApp.exceptions.ConflictException;
 import com.packt.blurApp.exceptions.ForbiddenException;
@@ -17,6 +19,7 @@ import com.packt.blurApp.exceptions.ResourceNotFoundExceptions;
 import com.packt.blurApp.exceptions.UnauthorizedException;
 import com.packt.blurApp.model.Role;
 import com.packt.blurApp.model.User;
+import com.packt.blurApp.config.security.AuthenticatedUser;
 import com.packt.blurApp.config.security.RoleNames;
 import com.packt.blurApp.repository.RoleRepository;
 import com.packt.blurApp.repository.UserRepository;
@@ -31,6 +34,8 @@ public class UserService implements IUserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentUserHolder currentUserHolder;
 
     @Override
     public User getUserById(Long userId) {
@@ -103,6 +108,9 @@ public class UserService implements IUserService {
         log.info("Updating user: {}", userId);
         
         User user = getUserById(userId);
+        String previousUserName = user.getUsername();
+        // Set when a change must invalidate the user's existing stateless tokens and cached authorities
+        boolean authChanged = false;
         
         // Update username if provided
         if (updateDto.getUserName() != null && !updateDto.getUserName().equals(user.getUsername())) {
@@ -110,6 +118,7 @@ public class UserService implements IUserService {
                 throw new ConflictException("Username already exists: " + updateDto.getUserName());
             }
             user.setUserName(updateDto.getUserName());
+            authChanged = true;
         }
         
         // Update email if provided
@@ -123,12 +132,14 @@ public class UserService implements IUserService {
         // Update password if provided
         if (updateDto.getPassword() != null && !updateDto.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(updateDto.getPassword()));
+            user.setPasswordChangedAt(java.time.LocalDateTime.now());
+            authChanged = true;
         }
         
         // Update roles if provided (admin operation)
         if (updateDto.getRoles() != null && !updateDto.getRoles().isEmpty()) {
             // Clear existing roles
-            user.getRoles().clear();
+            user.clearRoles();
             
             // Add new roles
             for (String roleStr : updateDto.getRoles()) {
@@ -146,15 +157,23 @@ public class UserService implements IUserService {
             if (!user.getRoles().isEmpty()) {
                 user.setRole(user.getRoles().iterator().next());
             }
+            authChanged = true;
         }
         
         // Update account status if provided (admin operation)
         if (updateDto.getEnabled() != null) {
             user.setEnabled(updateDto.getEnabled());
+            authChanged = true;
         }
         
         if (updateDto.getAccountNonLocked() != null) {
             user.setAccountNonLocked(updateDto.getAccountNonLocked());
+            authChanged = true;
+        }
+
+        if (authChanged) {
+            user.bumpAuthVersion();
+            eventPublisher.publishEvent(new UserSecurityChangedEvent(userId, previousUserName));
         }
         
         User updatedUser = userRepository.save(user);
@@ -216,6 +235,9 @@ public class UserService implements IUserService {
         if (user.getRole() == null) {
             user.setRole(role);
         }
+
+        user.bumpAuthVersion();
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(userId, user.getUsername()));
         
         User updatedUser = userRepository.save(user);
         
@@ -231,7 +253,7 @@ public class UserService implements IUserService {
         User user = getUserById(userId);
         
         // Clear existing roles and add new ones
-        user.getRoles().clear();
+        user.clearRoles();
         
         for (String roleName : roleNames) {
             String normalized = roleName.trim().toUpperCase();
@@ -244,6 +266,9 @@ public class UserService implements IUserService {
         if (!user.getRoles().isEmpty()) {
             user.setRole(user.getRoles().iterator().next());
         }
+
+        user.bumpAuthVersion();
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(userId, user.getUsername()));
         
         User updatedUser = userRepository.save(user);
         
@@ -274,6 +299,9 @@ public class UserService implements IUserService {
         if (user.getRole() == null || !user.getRoles().contains(user.getRole())) {
             user.setRole(user.getRoles().iterator().next());
         }
+
+        user.bumpAuthVersion();
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(userId, user.getUsername()));
         
         User updatedUser = userRepository.save(user);
         
@@ -300,6 +328,7 @@ public class UserService implements IUserService {
         }
         
         userRepository.delete(userToDelete);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(userId, userToDelete.getUsername()));
         log.info("User deleted successfully: {}", userId);
     }
 
@@ -312,14 +341,44 @@ public class UserService implements IUserService {
     @Override
     @Transactional(readOnly = true)
     public User getCurrentUser() {
+        Object principal = getAuthenticatedPrincipal();
+
+        // Already resolved in this request and still attached to the current transaction
+        User memoized = currentUserHolder.get();
+        if (memoized != null) {
+            return memoized;
+        }
+
+        User currentUser = loadCurrentUser(principal);
+        currentUserHolder.set(currentUser);
+        return currentUser;
+    }
+
+    @Override
+    public Long getCurrentUserId() {
+        Object principal = getAuthenticatedPrincipal();
+
+        // Both principal types carry the id; no need to touch the database
+        if (principal instanceof User) {
+            return ((User) principal).getId();
+        }
+        if (principal instanceof AuthenticatedUser) {
+            return ((AuthenticatedUser) principal).getId();
+        }
+        return getCurrentUser().getId();
+    }
+
+    private Object getAuthenticatedPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new UnauthorizedException("User not authenticated");
         }
         
-        Object principal = authentication.getPrincipal();
-        
+        return authentication.getPrincipal();
+    }
+
+    private User loadCurrentUser(Object principal) {
         if (principal instanceof User) {
             User principalUser = (User) principal;
             // Reload user from database to get a managed entity in the current transaction
@@ -328,6 +387,13 @@ public class UserService implements IUserService {
                     .orElseThrow(() -> new UnauthorizedException("User not found"));
         }
         
+        // Stateless mode: the principal only carries the id from the token claims
+        if (principal instanceof AuthenticatedUser) {
+            AuthenticatedUser authenticatedUser = (AuthenticatedUser) principal;
+            return userRepository.findById(authenticatedUser.getId())
+                    .orElseThrow(() -> new UnauthorizedException("User not found"));
+        }
+        
         // Handle case where principal is a String (username)
         if (principal instanceof String) {
             String username = (String) principal;
@@ -0,0 +1,47 @@
+package com.packt.blurApp.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Password check latency per {@code security.bcrypt.strength}, i.e. the CPU a login costs at each
+ * work factor on this machine. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class BCryptCostBenchmark {
+    private static final int WARMUP = 3;
+
+    @ParameterizedTest(name = "cost {0}")
+    @ValueSource(ints = {8, 9, 10, 11, 12})
+    void loginLatencyPerCost(int strength) {
+        CostAwareBCryptPasswordEncoder encoder = new CostAwareBCryptPasswordEncoder(strength);
+        String hash = encoder.encode("secret");
+        // Each step doubles the work: fewer samples for the expensive costs
+        int samples = Math.max(20, 200 >> (strength - 8));
+
+        for (int i = 0; i < WARMUP; i++) {
+            assertThat(encoder.matches("secret", hash)).isTrue();
+        }
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            encoder.matches("secret", hash);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        System.out.printf("cost %2d: p50 %7.1f ms, p99 %7.1f ms (%d samples)%n",
+                strength, percentileMillis(nanos, 0.50), percentileMillis(nanos, 0.99), samples);
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return sorted[index] / 1_000_000.0;
+    }
+}
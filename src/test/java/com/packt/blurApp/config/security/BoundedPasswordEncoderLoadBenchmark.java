@@ -0,0 +1,130 @@
+package com.packt.blurApp.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.packt.blurApp.exceptions.TooManyRequestsException;
+
+/**
+ * Login storm against a Tomcat-sized pool of request threads: 500 concurrent logins interleaved with
+ * 1000 cheap read requests, once with BCrypt on the request threads and once through
+ * {@link BoundedPasswordEncoder} with the production pool sizing. Reports read latency (queueing on the
+ * request pool included), the request thread time spent inside logins and the logins shed with 429.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class BoundedPasswordEncoderLoadBenchmark {
+    private static final int REQUEST_THREADS = 200;
+    private static final int LOGINS = 500;
+    private static final int READS = 1000;
+    // Below the production cost of 10 so the unbounded run finishes in seconds on a small machine
+    private static final int STRENGTH = 8;
+    private static final int QUEUE_CAPACITY = 50;
+
+    @Test
+    void readsKeepTheirLatencyDuringALoginStorm() throws Exception {
+        String hash = new CostAwareBCryptPasswordEncoder(STRENGTH).encode("secret");
+        int hashingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        Load direct = run(new CostAwareBCryptPasswordEncoder(STRENGTH), hash);
+        BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(
+                new CostAwareBCryptPasswordEncoder(STRENGTH), hashingThreads, QUEUE_CAPACITY, 5000);
+        Load pooled;
+        try {
+            pooled = run(bounded, hash);
+        } finally {
+            bounded.shutdown();
+        }
+
+        System.out.printf("%d cpus, %d request threads, %d logins, %d reads%n",
+                Runtime.getRuntime().availableProcessors(), REQUEST_THREADS, LOGINS, READS);
+        System.out.println("direct:  " + direct);
+        System.out.println("bounded: " + pooled);
+
+        assertThat(pooled.rejected).isPositive();
+        assertThat(pooled.loginThreadMillis).isLessThan(direct.loginThreadMillis);
+        assertThat(pooled.readP99Millis).isLessThan(direct.readP99Millis);
+    }
+
+    private static Load run(PasswordEncoder encoder, String hash) throws Exception {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        AtomicLong loginNanos = new AtomicLong();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<Long>> reads = new ArrayList<>(READS);
+        List<Future<?>> logins = new ArrayList<>(LOGINS);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < LOGINS + READS; i++) {
+                // One login for every two reads
+                if (i % 3 == 0) {
+                    logins.add(requestThreads.submit(() -> {
+                        long entered = System.nanoTime();
+                        try {
+                            encoder.matches("secret", hash);
+                        } catch (TooManyRequestsException e) {
+                            rejected.incrementAndGet();
+                        } finally {
+                            loginNanos.addAndGet(System.nanoTime() - entered);
+                        }
+                    }));
+                } else {
+                    long submitted = System.nanoTime();
+                    reads.add(requestThreads.submit(() -> {
+                        read();
+                        return System.nanoTime() - submitted;
+                    }));
+                }
+            }
+            long[] latencies = new long[reads.size()];
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = reads.get(i).get();
+            }
+            for (Future<?> login : logins) {
+                login.get();
+            }
+            Arrays.sort(latencies);
+            return new Load(
+                    percentileMillis(latencies, 0.50),
+                    percentileMillis(latencies, 0.99),
+                    loginNanos.get() / 1_000_000,
+                    rejected.get(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            requestThreads.shutdownNow();
+        }
+    }
+
+    // Stand-in for a cached read endpoint: a fraction of a millisecond of CPU
+    private static long read() {
+        int[] values = ThreadLocalRandom.current().ints(2_000).toArray();
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return sorted[index] / 1_000_000.0;
+    }
+
+    private record Load(double readP50Millis, double readP99Millis, long loginThreadMillis, int rejected, long totalMillis) {
+
+        @Override
+        public String toString() {
+            return String.format("read p50 %.1f ms, p99 %.1f ms, request threads held %d ms by logins, %d logins rejected, %d ms total",
+                    readP50Millis, readP99Millis, loginThreadMillis, rejected, totalMillis);
+        }
+    }
+}
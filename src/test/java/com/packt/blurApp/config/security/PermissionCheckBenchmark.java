@@ -0,0 +1,98 @@
+package com.packt.blurApp.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import com.packt.blurApp.model.Role;
+import com.packt.blurApp.model.enums.PermissionType;
+
+/**
+ * Per-call cost of the {@link RequiresPermission} bitmask check against the {@code @PreAuthorize}
+ * SpEL check it replaced, for a RACER principal. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionCheckBenchmark {
+
+    private PermissionAuthorizationManager bitmask;
+    private PreAuthorizeAuthorizationManager spel;
+    private Supplier<Authentication> authentication;
+    private MethodInvocation requiresPermission;
+    private MethodInvocation preAuthorize;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        bitmask = new PermissionAuthorizationManager();
+        spel = new PreAuthorizeAuthorizationManager();
+        AuthenticatedUser racer = new AuthenticatedUser(1L, "racer", List.of("RACER"),
+                PermissionMask.of(Role.createRacerRole().getPermissions()), 0L);
+        Authentication auth = UsernamePasswordAuthenticationToken.authenticated(racer, null, racer.getAuthorities());
+        authentication = () -> auth;
+        Guarded target = new Guarded();
+        requiresPermission = new SimpleMethodInvocation(target, Guarded.class.getMethod("withBitmask"));
+        preAuthorize = new SimpleMethodInvocation(target, Guarded.class.getMethod("withSpel"));
+    }
+
+    @Benchmark
+    public AuthorizationResult bitmask() {
+        return bitmask.authorize(authentication, requiresPermission);
+    }
+
+    @Benchmark
+    public AuthorizationResult spel() {
+        return spel.authorize(authentication, preAuthorize);
+    }
+
+    public static class Guarded {
+
+        @RequiresPermission(PermissionType.VIEW_SCORE)
+        public void withBitmask() {
+        }
+
+        @PreAuthorize("hasAuthority('VIEW_SCORE')")
+        public void withSpel() {
+        }
+    }
+
+    @Test
+    void bothChecksGrantAndReportTheirCost() throws Exception {
+        setUp();
+        assertThat(bitmask().isGranted()).isTrue();
+        assertThat(spel().isGranted()).isTrue();
+
+        new Runner(new OptionsBuilder()
+                .include(PermissionCheckBenchmark.class.getName() + "\\.")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,140 @@
+package com.packt.blurApp.service.leaderboard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.packt.blurApp.dto.Leaderboard.LeaderboardEntryDto;
+import com.packt.blurApp.event.ScoreChangedEvent;
+import com.packt.blurApp.repository.ScoreRepository;
+import com.packt.blurApp.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardServiceTest {
+    private static final Long PARTY_ID = 3L;
+    // Transactions below 100 had finished, 102 was still running, 105 and later had not started
+    private static final String SNAPSHOT = "100:105:102";
+
+    @Mock private ScoreRepository scoreRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private LeaderboardService leaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(leaderboardService, "maxLimit", 100);
+        leaderboardService.init();
+        lenient().when(userRepository.findUserNameById(any())).thenReturn(Optional.empty());
+        when(scoreRepository.currentSnapshot()).thenReturn(SNAPSHOT);
+    }
+
+    @Test
+    void playersWithTheSameScoreShareARank() {
+        when(scoreRepository.aggregateStandings()).thenReturn(List.of(
+                standing(1L, 30, 1, 2, 3),
+                standing(2L, 50, 2, 2, 3),
+                standing(3L, 30, 1, 2, 4),
+                standing(4L, 10, 0, 1, 2)));
+        leaderboardService.rebuild();
+
+        assertThat(leaderboardService.getTop(10).getEntries())
+                .extracting(LeaderboardEntryDto::getUserId, LeaderboardEntryDto::getRank)
+                .containsExactly(
+                        tuple(2L, 1),
+                        tuple(1L, 2),
+                        tuple(3L, 2),
+                        tuple(4L, 4));
+        assertThat(leaderboardService.getUserStanding(3L).getRank()).isEqualTo(2);
+        assertThat(leaderboardService.getUserStanding(4L).getRank()).isEqualTo(4);
+
+        // A win moves player 4 past the two tied players without re-sorting the board
+        leaderboardService.onScoreChanged(new ScoreChangedEvent(9L, PARTY_ID, 4L, null, null, 1, 25, 200L));
+
+        assertThat(leaderboardService.getUserStanding(4L))
+                .extracting(LeaderboardEntryDto::getRank, LeaderboardEntryDto::getPoints, LeaderboardEntryDto::getWins)
+                .containsExactly(2, 35L, 1L);
+        assertThat(leaderboardService.getUserStanding(1L).getRank()).isEqualTo(3);
+        assertThat(leaderboardService.getTop(2).getEntries())
+                .extracting(LeaderboardEntryDto::getUserId)
+                .containsExactly(2L, 4L);
+        assertThat(leaderboardService.getTop(2).getTotalPlayers()).isEqualTo(4);
+    }
+
+    @Test
+    void changesDuringARebuildAreCountedExactlyOnce() {
+        when(scoreRepository.aggregateStandings()).thenAnswer(call -> {
+            // Commits that land while the aggregate runs: 99 is in the snapshot, 106 is not
+            leaderboardService.onScoreChanged(new ScoreChangedEvent(8L, PARTY_ID, 1L, null, null, 2, 10, 99L));
+            leaderboardService.onScoreChanged(new ScoreChangedEvent(8L, PARTY_ID, 2L, null, null, 1, 20, 106L));
+            return List.of(standing(1L, 10, 0, 1, 1));
+        });
+
+        leaderboardService.rebuild();
+        // Listeners that only run after the swap: 101 is in the snapshot, 102 was still running in it
+        leaderboardService.onScoreChanged(new ScoreChangedEvent(7L, PARTY_ID, 1L, null, null, 3, 5, 101L));
+        leaderboardService.onScoreChanged(new ScoreChangedEvent(9L, PARTY_ID, 1L, null, null, 1, 7, 102L));
+
+        assertThat(leaderboardService.getUserStanding(1L))
+                .extracting(LeaderboardEntryDto::getPoints, LeaderboardEntryDto::getRacesPlayed)
+                .containsExactly(17L, 2L);
+        assertThat(leaderboardService.getUserStanding(2L))
+                .extracting(LeaderboardEntryDto::getPoints, LeaderboardEntryDto::getRank)
+                .containsExactly(20L, 1);
+        assertThat(leaderboardService.getUserPartyStanding(PARTY_ID, 1L).getPoints()).isEqualTo(17L);
+    }
+
+    private static ScoreRepository.StandingView standing(Long userId, long points, long wins, long podiums, long races) {
+        return new ScoreRepository.StandingView() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public String getUserName() {
+                return "racer" + userId;
+            }
+
+            @Override
+            public Long getPartyId() {
+                return PARTY_ID;
+            }
+
+            @Override
+            public Long getPoints() {
+                return points;
+            }
+
+            @Override
+            public Long getWins() {
+                return wins;
+            }
+
+            @Override
+            public Long getPodiums() {
+                return podiums;
+            }
+
+            @Override
+            public Long getRacesPlayed() {
+                return races;
+            }
+        };
+    }
+}
@@ -0,0 +1,135 @@
+package com.packt.blurApp.service.race;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.packt.blurApp.model.Car;
+import com.packt.blurApp.repository.AttributionRepository;
+import com.packt.blurApp.service.catalog.GameCatalog;
+
+/**
+ * {@link CarAllocationEngine#allocate} with 10,000 users who each drove part of a 50 car catalog: one
+ * allocation over all of them with the usage seeding included (cold) and without (warm), then races
+ * of 8 random users from the warm counters. The repository is mocked, so this measures the engine
+ * only. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class CarAllocationEngineBenchmark {
+    private static final int USERS = 10_000;
+    private static final int CARS = 50;
+    private static final int RACES = 20_000;
+    private static final int RACERS = 8;
+    private static final Long PARTY_ID = 1L;
+
+    @Test
+    void allocatesTenThousandUsers() {
+        Random random = new Random(42);
+        List<Car> cars = new ArrayList<>(CARS);
+        for (long id = 1; id <= CARS; id++) {
+            cars.add(new Car(id, "Car " + id, null));
+        }
+        List<Long> userIds = new ArrayList<>(USERS);
+        for (long id = 1; id <= USERS; id++) {
+            userIds.add(id);
+        }
+
+        GameCatalog gameCatalog = mock(GameCatalog.class);
+        when(gameCatalog.getCars()).thenReturn(cars);
+        AttributionRepository attributionRepository = mock(AttributionRepository.class);
+        when(attributionRepository.findCarUsageByUserIds(any()))
+                .thenAnswer(call -> history(call.getArgument(0), random));
+        when(attributionRepository.findCarUsageByPartyId(PARTY_ID)).thenReturn(List.of());
+        CarAllocationEngine engine = new CarAllocationEngine(attributionRepository, gameCatalog);
+        ReflectionTestUtils.setField(engine, "maxUsers", 100_000L);
+        ReflectionTestUtils.setField(engine, "maxParties", 10L);
+        ReflectionTestUtils.setField(engine, "maxScan", 16);
+        engine.init();
+
+        long start = System.nanoTime();
+        List<Car> cold = engine.allocate(PARTY_ID, userIds);
+        double coldMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        start = System.nanoTime();
+        List<Car> warm = engine.allocate(PARTY_ID, userIds);
+        double warmMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        long[] nanos = new long[RACES];
+        for (int i = 0; i < RACES; i++) {
+            List<Long> grid = new ArrayList<>(RACERS);
+            for (int j = 0; j < RACERS; j++) {
+                grid.add(userIds.get(random.nextInt(USERS)));
+            }
+            long raceStart = System.nanoTime();
+            List<Car> dealt = engine.allocate(PARTY_ID, grid);
+            nanos[i] = System.nanoTime() - raceStart;
+            assertThat(new HashSet<>(dealt)).hasSize(RACERS);
+        }
+        Arrays.sort(nanos);
+
+        System.out.printf("%d users, %d cars: cold %.1f ms (seeding included), warm %.1f ms%n",
+                USERS, CARS, coldMillis, warmMillis);
+        System.out.printf("race of %d: p50 %.1f us, p99 %.1f us (%d races)%n",
+                RACERS, percentileMicros(nanos, 0.50), percentileMicros(nanos, 0.99), RACES);
+
+        assertThat(cold).hasSize(USERS);
+        assertThat(warm).hasSize(USERS);
+        // Distinct cars while the catalog lasts
+        assertThat(new HashSet<>(cold.subList(0, CARS))).hasSize(CARS);
+    }
+
+    // Each user drove a random third of the catalog a few times
+    private static List<AttributionRepository.CarUsageView> history(Collection<Long> userIds, Random random) {
+        List<AttributionRepository.CarUsageView> views = new ArrayList<>();
+        long attributionId = 0;
+        for (Long userId : userIds) {
+            for (long carId = 1; carId <= CARS; carId++) {
+                if (random.nextInt(3) == 0) {
+                    views.add(new Usage(userId, carId, 1 + random.nextInt(5), ++attributionId));
+                }
+            }
+        }
+        return views;
+    }
+
+    private static double percentileMicros(long[] sorted, double percentile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return sorted[index] / 1_000.0;
+    }
+
+    private record Usage(long ownerId, long carId, long uses, long lastAttributionId)
+            implements AttributionRepository.CarUsageView {
+
+        @Override
+        public Long getOwnerId() {
+            return ownerId;
+        }
+
+        @Override
+        public Long getCarId() {
+            return carId;
+        }
+
+        @Override
+        public Long getUses() {
+            return uses;
+        }
+
+        @Override
+        public Long getLastAttributionId() {
+            return lastAttributionId;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.packt.blurApp.service.race;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.packt.blurApp.model.Attribution;
+import com.packt.blurApp.model.Car;
+import com.packt.blurApp.model.User;
+import com.packt.blurApp.repository.AttributionRepository;
+import com.packt.blurApp.service.catalog.GameCatalog;
+
+@ExtendWith(MockitoExtension.class)
+class CarAllocationEngineTest {
+    private static final Long PARTY_ID = 3L;
+    private static final Long USER_ID = 7L;
+    private static final Car DRIVEN = new Car(1L, "Driven", null);
+    private static final Car FRESH = new Car(2L, "Fresh", null);
+
+    @Mock private AttributionRepository attributionRepository;
+    @Mock private GameCatalog gameCatalog;
+
+    private CarAllocationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new CarAllocationEngine(attributionRepository, gameCatalog);
+        ReflectionTestUtils.setField(engine, "maxUsers", 100L);
+        ReflectionTestUtils.setField(engine, "maxParties", 10L);
+        ReflectionTestUtils.setField(engine, "maxScan", 16);
+        engine.init();
+    }
+
+    @Test
+    void aReRolledCarStillCountsAsRecentlyDriven() {
+        when(gameCatalog.getCars()).thenReturn(List.of(DRIVEN, FRESH));
+        when(attributionRepository.findCarUsageByUserIds(any())).thenReturn(List.of());
+        when(attributionRepository.findCarUsageByPartyId(PARTY_ID)).thenReturn(List.of());
+        engine.allocate(PARTY_ID, List.of(USER_ID));
+
+        // Outside a transaction both apply immediately: the car is dealt, then re-rolled away
+        Attribution attribution = Attribution.builder()
+                .id(10L)
+                .car(DRIVEN)
+                .user(User.builder().id(USER_ID).build())
+                .build();
+        engine.record(PARTY_ID, List.of(attribution));
+        engine.release(PARTY_ID, List.of(attribution));
+
+        // Both cars are back at zero uses, but only one was never driven
+        for (int i = 0; i < 20; i++) {
+            assertThat(engine.allocate(PARTY_ID, List.of(USER_ID))).containsExactly(FRESH);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.packt.blurApp.service.race;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.packt.blurApp.config.security.AuthenticatedUser;
+import com.packt.blurApp.exceptions.BadRequestException;
+import com.packt.blurApp.exceptions.ConflictException;
+import com.packt.blurApp.model.Card;
+import com.packt.blurApp.model.Party;
+import com.packt.blurApp.model.Race;
+import com.packt.blurApp.model.User;
+import com.packt.blurApp.model.enums.RaceStatus;
+import com.packt.blurApp.service.catalog.GameCatalog;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Race lifecycle under real concurrency against PostgreSQL: the guarded transitions and inserts are only
+ * exclusive through the database's row locks, which mocked repositories cannot show. Needs Docker.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class RaceConcurrencyTest {
+    private static final int STARTERS = 8;
+    private static final int JOINERS = 50;
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired private IRaceService raceService;
+    @Autowired private GameCatalog gameCatalog;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Test
+    void concurrentStartsLetExactlyOneWin() throws Exception {
+        List<Long> racers = createRacers(STARTERS);
+        Long raceId = createPendingRace(racers);
+
+        List<Throwable> outcomes = concurrently(racers, racer -> raceService.startRace(raceId));
+
+        assertThat(outcomes).filteredOn(outcome -> outcome == null).hasSize(1);
+        // Losers either saw the race already started, or saw it pending and lost the guarded update
+        assertThat(outcomes).filteredOn(outcome -> outcome != null)
+                .hasSize(STARTERS - 1)
+                .allSatisfy(outcome -> assertThat(outcome).isInstanceOfAny(ConflictException.class, BadRequestException.class));
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM race WHERE id = ?", String.class, raceId))
+                .isEqualTo(RaceStatus.IN_PROGRESS.name());
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM race WHERE id = ?", Long.class, raceId))
+                .isEqualTo(1L);
+        // A single start created the attributions: one per participant, none duplicated by a loser
+        assertThat(jdbcTemplate.queryForList("SELECT user_id FROM attribution WHERE race_id = ?", Long.class, raceId))
+                .containsExactlyInAnyOrderElementsOf(racers);
+    }
+
+    @Test
+    void fiftyConcurrentJoinersAllLandInThePendingRace() throws Exception {
+        List<Long> creator = createRacers(1);
+        Long raceId = createPendingRace(creator);
+        List<Long> joiners = createRacers(JOINERS);
+
+        List<Throwable> outcomes = concurrently(joiners, joiner -> raceService.addParticipant(raceId, joiner));
+
+        assertThat(outcomes).containsOnlyNulls();
+        assertThat(participantsOf(raceId))
+                .hasSize(JOINERS + 1)
+                .containsAll(creator)
+                .containsAll(joiners);
+    }
+
+    @Test
+    void joinersRacingAStartAreEitherOnTheGridOrRejected() throws Exception {
+        List<Long> starter = createRacers(1);
+        Long raceId = createPendingRace(starter);
+        List<Long> racers = new ArrayList<>(createRacers(JOINERS));
+        racers.add(starter.get(0));
+
+        List<Throwable> outcomes = concurrently(racers, racer -> {
+            if (racer == starter.get(0)) {
+                raceService.startRace(raceId);
+            } else {
+                raceService.addParticipant(raceId, racer);
+            }
+        });
+
+        assertThat(outcomes.get(JOINERS)).as("start").isNull();
+        List<Long> participants = participantsOf(raceId);
+        for (int i = 0; i < JOINERS; i++) {
+            Throwable outcome = outcomes.get(i);
+            if (outcome == null) {
+                assertThat(participants).contains(racers.get(i));
+            } else {
+                assertThat(outcome).isInstanceOfAny(ConflictException.class, BadRequestException.class);
+                assertThat(participants).doesNotContain(racers.get(i));
+            }
+        }
+        // Nobody joined after the grid was read: every participant got a car and could be the collector
+        assertThat(jdbcTemplate.queryForList("SELECT user_id FROM attribution WHERE race_id = ?", Long.class, raceId))
+                .containsExactlyInAnyOrderElementsOf(participants);
+        assertThat(jdbcTemplate.queryForObject("SELECT score_collector_id FROM race WHERE id = ?", Long.class, raceId))
+                .isIn(participants);
+    }
+
+    /**
+     * Runs the action once per user, all released at the same time, each with that user as the
+     * authenticated principal. Returns, in user order, null for a success or the exception thrown.
+     */
+    private List<Throwable> concurrently(List<Long> userIds, LongConsumer action) throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(userIds.size());
+        CountDownLatch ready = new CountDownLatch(userIds.size());
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Throwable>> futures = new ArrayList<>(userIds.size());
+        try {
+            for (Long userId : userIds) {
+                futures.add(threads.submit(() -> {
+                    AuthenticatedUser principal = new AuthenticatedUser(userId, "racer" + userId, List.of("RACER"), 0L, 0L);
+                    SecurityContextHolder.getContext().setAuthentication(
+                            UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+                    ready.countDown();
+                    go.await();
+                    try {
+                        action.accept(userId);
+                        return null;
+                    } catch (RuntimeException e) {
+                        return e;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            ready.await();
+            go.countDown();
+            List<Throwable> outcomes = new ArrayList<>(futures.size());
+            for (Future<Throwable> future : futures) {
+                outcomes.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private List<Long> participantsOf(Long raceId) {
+        return jdbcTemplate.queryForList("SELECT user_id FROM race_participants WHERE race_id = ?", Long.class, raceId);
+    }
+
+    private List<Long> createRacers(int count) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                User racer = User.builder().userName("racer-" + SEQUENCE.incrementAndGet()).password("{noop}secret").build();
+                entityManager.persist(racer);
+                ids.add(racer.getId());
+            }
+            return ids;
+        });
+    }
+
+    private Long createPendingRace(List<Long> participantIds) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            User creator = entityManager.getReference(User.class, participantIds.get(0));
+            Party party = Party.builder()
+                    .partyDate(LocalDate.of(2001, 1, 1).plusDays(SEQUENCE.incrementAndGet()))
+                    .creator(creator)
+                    .build();
+            entityManager.persist(party);
+            Race race = Race.builder()
+                    .party(party)
+                    .creator(creator)
+                    .card(entityManager.getReference(Card.class, gameCatalog.getCards().get(0).getId()))
+                    .status(RaceStatus.PENDING)
+                    .build();
+            for (Long participantId : participantIds) {
+                race.getParticipants().add(entityManager.getReference(User.class, participantId));
+            }
+            entityManager.persist(race);
+            return race.getId();
+        });
+    }
+}
@@ -0,0 +1,264 @@
+package com.packt.blurApp.service.race;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.packt.blurApp.model.Attribution;
+import com.packt.blurApp.model.Car;
+import com.packt.blurApp.model.Card;
+import com.packt.blurApp.model.Party;
+import com.packt.blurApp.model.Race;
+import com.packt.blurApp.model.RaceParameters;
+import com.packt.blurApp.model.Score;
+import com.packt.blurApp.model.User;
+import com.packt.blurApp.model.enums.RaceStatus;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Rows read over JDBC and latency of {@link RaceHydrator} against the single entity graph it replaced
+ * (every to-one plus participants, scores.user, attributions.user/car and raceParameters), for 1, 50
+ * and 1000 races of 6 participants, 6 scores, 6 attributions and 3 parameters. Needs Docker for the
+ * PostgreSQL container; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RaceHydratorBenchmark {
+    private static final int RACES = 1000;
+    private static final int RACERS = 6;
+    private static final int PARAMETERS = 3;
+    private static final int RUNS = 5;
+    private static final AtomicLong ROWS = new AtomicLong();
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @TestConfiguration
+    static class RowCounting {
+
+        @Bean
+        static BeanPostProcessor countRowsRead() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counting(DataSource.class, dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired private RaceHydrator raceHydrator;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @PersistenceContext private EntityManager entityManager;
+
+    private TransactionTemplate readOnly;
+    private final List<Long> raceIds = new ArrayList<>(RACES);
+
+    @BeforeAll
+    void seed() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        tx.executeWithoutResult(status -> {
+            List<User> racers = new ArrayList<>();
+            for (int i = 0; i < RACERS; i++) {
+                User racer = User.builder().userName("hydration" + i).password("{noop}secret").build();
+                entityManager.persist(racer);
+                racers.add(racer);
+            }
+            Party party = Party.builder().partyDate(LocalDate.of(2000, 1, 1)).creator(racers.get(0)).build();
+            entityManager.persist(party);
+            Card card = new Card();
+            card.setTrack("Hydration");
+            entityManager.persist(card);
+            List<Car> cars = new ArrayList<>();
+            for (int i = 0; i < RACERS; i++) {
+                Car car = new Car();
+                car.setName("Hydration " + i);
+                entityManager.persist(car);
+                cars.add(car);
+            }
+            List<RaceParameters> parameters = new ArrayList<>();
+            for (int i = 0; i < PARAMETERS; i++) {
+                RaceParameters parameter = new RaceParameters();
+                parameter.setName("Hydration " + i);
+                parameter.setIsActive(true);
+                entityManager.persist(parameter);
+                parameters.add(parameter);
+            }
+
+            for (int r = 0; r < RACES; r++) {
+                Race race = Race.builder()
+                        .party(party)
+                        .creator(racers.get(0))
+                        .scoreCollector(racers.get(0))
+                        .card(card)
+                        .status(RaceStatus.COMPLETED)
+                        .build();
+                race.getParticipants().addAll(racers);
+                race.getRaceParameters().addAll(parameters);
+                entityManager.persist(race);
+                for (int i = 0; i < RACERS; i++) {
+                    entityManager.persist(Score.builder()
+                            .race(race).user(racers.get(i)).submittedBy(racers.get(0))
+                            .rank(i + 1).value(RACERS - i)
+                            .build());
+                    entityManager.persist(Attribution.builder().race(race).user(racers.get(i)).car(cars.get(i)).build());
+                }
+                raceIds.add(race.getId());
+                if (r % 50 == 49) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    racers.replaceAll(user -> entityManager.getReference(User.class, user.getId()));
+                    cars.replaceAll(car -> entityManager.getReference(Car.class, car.getId()));
+                    parameters.replaceAll(parameter -> entityManager.getReference(RaceParameters.class, parameter.getId()));
+                    party = entityManager.getReference(Party.class, party.getId());
+                    card = entityManager.getReference(Card.class, card.getId());
+                }
+            }
+        });
+    }
+
+    @ParameterizedTest(name = "{0} races")
+    @ValueSource(ints = {1, 50, RACES})
+    void hydratorReadsFewerRowsThanTheEntityGraph(int count) {
+        List<Long> ids = raceIds.subList(0, count);
+
+        Load hydrated = measure(ids, raceHydrator::hydrate);
+        Load graph = measure(ids, this::loadWithEntityGraph);
+
+        System.out.printf("%4d races: hydrator %7d rows, p50 %8.1f ms | entity graph %9d rows, p50 %8.1f ms%n",
+                count, hydrated.rows, hydrated.p50Millis, graph.rows, graph.p50Millis);
+
+        // One base row per race, then one row per participant, score, attribution and parameter
+        assertThat(hydrated.rows).isEqualTo((long) count * (1 + 3 * RACERS + PARAMETERS));
+        // The single fetch multiplies the collections: participants x scores x attributions x parameters
+        assertThat(graph.rows).isEqualTo((long) count * RACERS * RACERS * RACERS * PARAMETERS);
+    }
+
+    private List<Race> loadWithEntityGraph(Collection<Long> ids) {
+        EntityGraph<Race> graph = entityManager.createEntityGraph(Race.class);
+        graph.addAttributeNodes("party", "creator", "scoreCollector", "card", "raceParameters", "participants");
+        graph.addSubgraph("scores").addAttributeNodes("user");
+        graph.addSubgraph("attributions").addAttributeNodes("user", "car");
+        return entityManager.createQuery("select r from Race r where r.id in :ids", Race.class)
+                .setParameter("ids", ids)
+                .setHint("jakarta.persistence.fetchgraph", graph)
+                .getResultList();
+    }
+
+    private Load measure(List<Long> ids, Function<Collection<Long>, List<Race>> loader) {
+        long rows = 0;
+        long[] nanos = new long[RUNS];
+        // The first run warms up the JIT and the statement caches and is not counted
+        for (int run = -1; run < RUNS; run++) {
+            ROWS.set(0);
+            long start = System.nanoTime();
+            List<Race> races = readOnly.execute(status -> {
+                List<Race> loaded = loader.apply(ids);
+                assertFullyLoaded(loaded);
+                return loaded;
+            });
+            long elapsed = System.nanoTime() - start;
+            assertThat(races).hasSize(ids.size());
+            if (run >= 0) {
+                nanos[run] = elapsed;
+                rows = ROWS.get();
+            }
+        }
+        Arrays.sort(nanos);
+        return new Load(rows, nanos[RUNS / 2] / 1_000_000.0);
+    }
+
+    // Touches everything RaceMapper reads, so lazy loads would show up in the row count
+    private static void assertFullyLoaded(List<Race> races) {
+        for (Race race : races) {
+            assertThat(race.getParty().getPartyDate()).isNotNull();
+            assertThat(race.getCard().getTrack()).isNotNull();
+            assertThat(race.getScoreCollector().getUsername()).isNotNull();
+            assertThat(race.getParticipants()).hasSize(RACERS);
+            assertThat(race.getRaceParameters()).hasSize(PARAMETERS);
+            assertThat(race.getScores()).hasSize(RACERS)
+                    .allSatisfy(score -> assertThat(score.getUser().getUsername()).isNotNull());
+            assertThat(race.getAttributions()).hasSize(RACERS)
+                    .allSatisfy(attribution -> assertThat(attribution.getCar().getName()).isNotNull());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T counting(Class<T> type, T target) {
+        Class<?>[] interfaces = target instanceof Closeable && type == DataSource.class
+                ? new Class<?>[] {type, Closeable.class}
+                : new Class<?>[] {type};
+        return (T) Proxy.newProxyInstance(RaceHydratorBenchmark.class.getClassLoader(), interfaces, (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (type == ResultSet.class && method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                ROWS.incrementAndGet();
+            }
+            return wrap(method.getReturnType(), result);
+        });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object wrap(Class<?> returnType, Object result) {
+        if (result == null) {
+            return null;
+        }
+        for (Class<?> type : Set.of(Connection.class, Statement.class, PreparedStatement.class,
+                CallableStatement.class, ResultSet.class)) {
+            if (returnType == type) {
+                return counting((Class) type, result);
+            }
+        }
+        return result;
+    }
+
+    private record Load(long rows, double p50Millis) {
+    }
+}
@@ -0,0 +1,252 @@
+package com.packt.blurApp.service.race;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.packt.blurApp.config.security.RoleNames;
+import com.packt.blurApp.dto.Race.RaceParticipantsResultDto;
+import com.packt.blurApp.event.RaceLifecycleEvent;
+import com.packt.blurApp.exceptions.ConflictException;
+import com.packt.blurApp.exceptions.ForbiddenException;
+import com.packt.blurApp.exceptions.ResourceNotFoundExceptions;
+import com.packt.blurApp.model.Attribution;
+import com.packt.blurApp.model.Car;
+import com.packt.blurApp.model.Party;
+import com.packt.blurApp.model.Race;
+import com.packt.blurApp.model.User;
+import com.packt.blurApp.model.enums.AttributionType;
+import com.packt.blurApp.model.enums.RaceEventType;
+import com.packt.blurApp.model.enums.RaceStatus;
+import com.packt.blurApp.repository.AttributionRepository;
+import com.packt.blurApp.repository.PartyMemberRepository;
+import com.packt.blurApp.repository.PartyRepository;
+import com.packt.blurApp.repository.RaceRepository;
+import com.packt.blurApp.repository.UserRepository;
+import com.packt.blurApp.service.catalog.GameCatalog;
+import com.packt.blurApp.service.party.IPartyService;
+import com.packt.blurApp.service.user.IUserService;
+
+@ExtendWith(MockitoExtension.class)
+class RaceServiceTest {
+    private static final Long RACE_ID = 10L;
+    private static final Long PARTY_ID = 3L;
+    private static final Long USER_ID = 7L;
+
+    @Mock private RaceRepository raceRepository;
+    @Mock private IPartyService partyService;
+    @Mock private IUserService userService;
+    @Mock private UserRepository userRepository;
+    @Mock private AttributionRepository attributionRepository;
+    @Mock private PartyRepository partyRepository;
+    @Mock private PartyMemberRepository partyMemberRepository;
+    @Mock private RaceHydrator raceHydrator;
+    @Mock private GameCatalog gameCatalog;
+    @Mock private CardRotationEngine cardRotationEngine;
+    @Mock private CarAllocationEngine carAllocationEngine;
+    @Mock private RaceCounters raceCounters;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private RaceService raceService;
+
+    @Test
+    void startRaceLosingTheGuardedUpdateIsAConflictWithoutEvents() {
+        givenState(RaceStatus.PENDING);
+        when(userService.getCurrentUserId()).thenReturn(USER_ID);
+        when(raceRepository.findParticipantIds(RACE_ID)).thenReturn(List.of(USER_ID));
+        when(raceRepository.markStarted(any(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> raceService.startRace(RACE_ID)).isInstanceOf(ConflictException.class);
+
+        verifyNoInteractions(eventPublisher, carAllocationEngine);
+        verify(raceRepository, never()).assignScoreCollector(any(), any());
+        verify(attributionRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void startRaceDealsCarsToTheParticipantsReadAfterTheGuardedUpdate() {
+        RaceRepository.RaceStateView state = givenState(RaceStatus.PENDING);
+        when(state.getPartyId()).thenReturn(PARTY_ID);
+        when(state.getAttributionType()).thenReturn(AttributionType.PER_USER);
+        when(userService.getCurrentUserId()).thenReturn(USER_ID);
+        // Racer 8 joined between the permission check and the update
+        when(raceRepository.findParticipantIds(RACE_ID)).thenReturn(List.of(USER_ID), List.of(USER_ID, 8L));
+        when(raceRepository.markStarted(eq(RACE_ID), any())).thenReturn(1);
+        when(userRepository.getReferenceById(any())).thenAnswer(call -> User.builder().id(call.getArgument(0)).build());
+        Race race = pendingRace();
+        when(raceRepository.getReferenceById(RACE_ID)).thenReturn(race);
+        when(gameCatalog.getCars()).thenReturn(List.of(car(1L), car(2L)));
+        when(gameCatalog.carReference(any())).thenAnswer(call -> car(call.getArgument(0)));
+        when(carAllocationEngine.allocate(PARTY_ID, List.of(USER_ID, 8L))).thenReturn(List.of(car(1L), car(2L)));
+        when(raceHydrator.hydrate(RACE_ID)).thenReturn(Optional.of(race));
+
+        raceService.startRace(RACE_ID);
+
+        InOrder order = inOrder(raceRepository);
+        order.verify(raceRepository).markStarted(eq(RACE_ID), any());
+        order.verify(raceRepository).findParticipantIds(RACE_ID);
+        ArgumentCaptor<User> collector = ArgumentCaptor.forClass(User.class);
+        order.verify(raceRepository).assignScoreCollector(eq(RACE_ID), collector.capture());
+        assertThat(collector.getValue().getId()).isIn(USER_ID, 8L);
+        ArgumentCaptor<List<Attribution>> attributions = ArgumentCaptor.captor();
+        verify(attributionRepository).saveAll(attributions.capture());
+        assertThat(attributions.getValue()).extracting(attribution -> attribution.getUser().getId())
+                .containsExactly(USER_ID, 8L);
+    }
+
+    @Test
+    void completeRaceLosingTheGuardedUpdateIsAConflictWithoutEvents() {
+        givenState(RaceStatus.IN_PROGRESS);
+        when(userService.getCurrentUserId()).thenReturn(USER_ID);
+        when(raceRepository.findParticipantIds(RACE_ID)).thenReturn(List.of(USER_ID));
+        when(raceRepository.markCompleted(any(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> raceService.completeRace(RACE_ID)).isInstanceOf(ConflictException.class);
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void cancelRaceLosingTheGuardedUpdateIsAConflictWithoutEvents() {
+        User creator = User.builder().id(USER_ID).build();
+        Race race = pendingRace();
+        race.setCreator(creator);
+        when(userService.getCurrentUser()).thenReturn(creator);
+        when(raceRepository.findById(RACE_ID)).thenReturn(Optional.of(race));
+        when(raceRepository.markCancelled(RACE_ID, RaceStatus.PENDING)).thenReturn(0);
+
+        assertThatThrownBy(() -> raceService.cancelRace(RACE_ID)).isInstanceOf(ConflictException.class);
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void addParticipantsSplitsAddedFromAlreadyJoined() {
+        when(givenState(RaceStatus.PENDING).getPartyId()).thenReturn(PARTY_ID);
+        givenUsers("RACER", 7L, 8L, 9L);
+        when(raceRepository.insertParticipants(eq(RACE_ID), any())).thenReturn(List.of(7L, 9L));
+        when(raceRepository.findParticipantIds(RACE_ID)).thenReturn(List.of(5L, 7L, 8L, 9L));
+
+        RaceParticipantsResultDto result = raceService.addParticipants(RACE_ID, List.of(7L, 8L, 9L, 8L));
+
+        assertThat(result.getAddedUserIds()).containsExactly(7L, 9L);
+        assertThat(result.getAlreadyParticipantUserIds()).containsExactly(8L);
+        verify(raceRepository).insertParticipants(RACE_ID, Set.of(7L, 8L, 9L));
+        verify(partyMemberRepository).insertParticipants(PARTY_ID, Set.of(7L, 8L, 9L));
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue()).isInstanceOfSatisfying(RaceLifecycleEvent.class, joined -> {
+            assertThat(joined.type()).isEqualTo(RaceEventType.PARTICIPANTS_JOINED);
+            assertThat(joined.userIds()).containsExactly(7L, 9L);
+        });
+    }
+
+    @Test
+    void addParticipantsWhoAllJoinedAlreadyPublishesNothing() {
+        when(givenState(RaceStatus.PENDING).getPartyId()).thenReturn(PARTY_ID);
+        givenUsers("RACER", 7L, 8L);
+        when(raceRepository.insertParticipants(eq(RACE_ID), any())).thenReturn(List.of());
+        when(raceRepository.findParticipantIds(RACE_ID)).thenReturn(List.of(7L, 8L));
+
+        RaceParticipantsResultDto result = raceService.addParticipants(RACE_ID, List.of(7L, 8L));
+
+        assertThat(result.getAddedUserIds()).isEmpty();
+        assertThat(result.getAlreadyParticipantUserIds()).containsExactly(7L, 8L);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void addParticipantsToARaceThatLeftPendingMeanwhileIsAConflict() {
+        givenState(RaceStatus.PENDING);
+        givenUsers("RACER", 7L, 8L);
+        // The insert's status guard matched no row, and the users are not in the race either
+        when(raceRepository.insertParticipants(eq(RACE_ID), any())).thenReturn(List.of());
+        when(raceRepository.findParticipantIds(RACE_ID)).thenReturn(List.of(5L));
+
+        assertThatThrownBy(() -> raceService.addParticipants(RACE_ID, List.of(7L, 8L)))
+                .isInstanceOf(ConflictException.class);
+
+        verifyNoInteractions(partyMemberRepository, eventPublisher);
+    }
+
+    @Test
+    void addParticipantsRejectsAdministrators() {
+        givenState(RaceStatus.PENDING);
+        givenUsers(RoleNames.GREAT_ADMIN, 7L);
+
+        assertThatThrownBy(() -> raceService.addParticipants(RACE_ID, List.of(7L)))
+                .isInstanceOf(ForbiddenException.class);
+
+        verify(raceRepository, never()).insertParticipants(any(), any());
+        verifyNoInteractions(partyMemberRepository, eventPublisher);
+    }
+
+    @Test
+    void addParticipantsRejectsUnknownUsers() {
+        givenState(RaceStatus.PENDING);
+        givenUsers("RACER", 7L);
+
+        assertThatThrownBy(() -> raceService.addParticipants(RACE_ID, List.of(7L, 42L)))
+                .isInstanceOf(ResourceNotFoundExceptions.class)
+                .hasMessageContaining("42");
+
+        verify(raceRepository, never()).insertParticipants(any(), any());
+        verifyNoInteractions(partyMemberRepository, eventPublisher);
+    }
+
+    private RaceRepository.RaceStateView givenState(RaceStatus status) {
+        RaceRepository.RaceStateView state = mock(RaceRepository.RaceStateView.class);
+        when(state.getStatus()).thenReturn(status);
+        when(raceRepository.findStateById(RACE_ID)).thenReturn(Optional.of(state));
+        return state;
+    }
+
+    private void givenUsers(String roleName, Long... ids) {
+        List<UserRepository.UserRoleView> views = new ArrayList<>();
+        for (Long id : ids) {
+            UserRepository.UserRoleView view = mock(UserRepository.UserRoleView.class);
+            lenient().when(view.getId()).thenReturn(id);
+            when(view.getRoleName()).thenReturn(roleName);
+            views.add(view);
+        }
+        when(userRepository.findRoleViewsByIdIn(any())).thenReturn(views);
+    }
+
+    private static Race pendingRace() {
+        return Race.builder()
+                .id(RACE_ID)
+                .party(Party.builder().id(PARTY_ID).build())
+                .attributionType(AttributionType.PER_USER)
+                .status(RaceStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static Car car(Long id) {
+        return new Car(id, "Car " + id, null);
+    }
+}
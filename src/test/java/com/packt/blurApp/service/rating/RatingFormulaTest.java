@@ -0,0 +1,95 @@
+package com.packt.blurApp.service.rating;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class RatingFormulaTest {
+
+    @Test
+    void equalRatingsExchangeAZeroSumDelta() {
+        int[] players = {0, 1, 2, 3};
+        int[] ranks = {1, 2, 3, 4};
+        double[] rating = filled(4, RatingFormula.INITIAL_RATING);
+        double[] deviation = filled(4, RatingFormula.INITIAL_DEVIATION);
+
+        RatingFormula.rate(players, ranks, 0, 4, rating, deviation);
+
+        assertThat(Arrays.stream(rating).sum()).isCloseTo(4 * RatingFormula.INITIAL_RATING, within(1e-9));
+        assertThat(rating[0]).isGreaterThan(rating[1]);
+        assertThat(rating[1]).isGreaterThan(RatingFormula.INITIAL_RATING);
+        assertThat(rating[2]).isLessThan(RatingFormula.INITIAL_RATING);
+        assertThat(rating[3]).isLessThan(rating[2]);
+        // Symmetric field: the winner gains what the last one loses
+        assertThat(rating[0] - RatingFormula.INITIAL_RATING)
+                .isCloseTo(RatingFormula.INITIAL_RATING - rating[3], within(1e-9));
+    }
+
+    @Test
+    void equalRanksAreDraws() {
+        int[] players = {0, 1};
+        int[] ranks = {2, 2};
+        double[] rating = filled(2, RatingFormula.INITIAL_RATING);
+        double[] deviation = filled(2, RatingFormula.INITIAL_DEVIATION);
+
+        RatingFormula.rate(players, ranks, 0, 2, rating, deviation);
+
+        assertThat(rating).containsExactly(RatingFormula.INITIAL_RATING, RatingFormula.INITIAL_RATING);
+    }
+
+    @Test
+    void drawAgainstAStrongerRacerGainsRating() {
+        int[] players = {0, 1};
+        int[] ranks = {1, 1};
+        double[] rating = {1400, 1600};
+        double[] deviation = filled(2, RatingFormula.INITIAL_DEVIATION);
+
+        RatingFormula.rate(players, ranks, 0, 2, rating, deviation);
+
+        assertThat(rating[0]).isGreaterThan(1400);
+        assertThat(rating[1]).isLessThan(1600);
+    }
+
+    @Test
+    void deviationShrinksDownToTheFloor() {
+        int[] players = {0, 1};
+        int[] ranks = {1, 2};
+        double[] rating = filled(2, RatingFormula.INITIAL_RATING);
+        double[] deviation = filled(2, RatingFormula.INITIAL_DEVIATION);
+
+        RatingFormula.rate(players, ranks, 0, 2, rating, deviation);
+        assertThat(deviation[0]).isLessThan(RatingFormula.INITIAL_DEVIATION);
+
+        for (int race = 0; race < 200; race++) {
+            RatingFormula.rate(players, ranks, 0, 2, rating, deviation);
+        }
+        assertThat(deviation).containsExactly(RatingFormula.MIN_DEVIATION, RatingFormula.MIN_DEVIATION);
+    }
+
+    @Test
+    void onlyTheGivenRangeIsRated() {
+        int[] players = {0, 1, 2};
+        int[] ranks = {1, 1, 2};
+        double[] rating = filled(3, RatingFormula.INITIAL_RATING);
+        double[] deviation = filled(3, RatingFormula.INITIAL_DEVIATION);
+
+        // A single racer is not a race
+        RatingFormula.rate(players, ranks, 0, 1, rating, deviation);
+        assertThat(rating).containsOnly(RatingFormula.INITIAL_RATING);
+        assertThat(deviation).containsOnly(RatingFormula.INITIAL_DEVIATION);
+
+        RatingFormula.rate(players, ranks, 1, 3, rating, deviation);
+        assertThat(rating[0]).isEqualTo(RatingFormula.INITIAL_RATING);
+        assertThat(deviation[0]).isEqualTo(RatingFormula.INITIAL_DEVIATION);
+        assertThat(rating[1]).isGreaterThan(rating[2]);
+    }
+
+    private static double[] filled(int size, double value) {
+        double[] values = new double[size];
+        Arrays.fill(values, value);
+        return values;
+    }
+}
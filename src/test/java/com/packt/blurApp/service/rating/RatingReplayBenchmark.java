@@ -0,0 +1,50 @@
+package com.packt.blurApp.service.rating;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Full {@link RatingReplay#run} over 100,000 synthetic races of 2 to 8 racers, one wave at a time
+ * against the parallel waves {@link RatingService#replayAll} uses. The player count sets how many races
+ * fit in a wave. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class RatingReplayBenchmark {
+    private static final int RACES = 100_000;
+    private static final int RUNS = 5;
+
+    @ParameterizedTest(name = "{0} players")
+    @ValueSource(ints = {200, 2_000, 20_000})
+    void replaysAHundredThousandRaces(int players) {
+        RatingReplay.Results results = RatingReplayTest.randomHistory(new Random(42), RACES, players);
+
+        RatingReplay sequential = RatingReplay.run(results, Integer.MAX_VALUE);
+        RatingReplay parallel = RatingReplay.run(results, RatingService.PARALLEL_WAVE_SIZE);
+        double sequentialMillis = medianMillis(results, Integer.MAX_VALUE);
+        double parallelMillis = medianMillis(results, RatingService.PARALLEL_WAVE_SIZE);
+
+        System.out.printf("%,d races, %,d players, %,d waves: sequential %.1f ms, parallel waves %.1f ms (%d cpus)%n",
+                RACES, players, parallel.waveCount, sequentialMillis, parallelMillis,
+                Runtime.getRuntime().availableProcessors());
+
+        assertThat(parallel.rating).containsExactly(sequential.rating);
+        assertThat(parallel.deviation).containsExactly(sequential.deviation);
+    }
+
+    private static double medianMillis(RatingReplay.Results results, int parallelWaveSize) {
+        long[] nanos = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            RatingReplay.run(results, parallelWaveSize);
+            nanos[run] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[RUNS / 2] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,89 @@
+package com.packt.blurApp.service.rating;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RatingReplayTest {
+
+    @Test
+    void wavesInParallelMatchASequentialPass() {
+        RatingReplay.Results results = randomHistory(new Random(42), 5_000, 300);
+
+        // Every wave in parallel, whatever its size
+        RatingReplay replay = RatingReplay.run(results, 1);
+
+        int playerCount = results.userIds().length;
+        double[] rating = new double[playerCount];
+        double[] deviation = new double[playerCount];
+        Arrays.fill(rating, RatingFormula.INITIAL_RATING);
+        Arrays.fill(deviation, RatingFormula.INITIAL_DEVIATION);
+        double[] ratingAfter = new double[results.players().length];
+        for (int race = 0; race < results.raceIds().length; race++) {
+            int from = results.raceStart()[race];
+            int to = results.raceStart()[race + 1];
+            RatingFormula.rate(results.players(), results.ranks(), from, to, rating, deviation);
+            for (int e = from; e < to; e++) {
+                ratingAfter[e] = to - from < 2 ? 0 : rating[results.players()[e]];
+            }
+        }
+
+        assertThat(replay.waveCount).isLessThan(results.raceIds().length);
+        assertThat(replay.rating).containsExactly(rating);
+        assertThat(replay.deviation).containsExactly(deviation);
+        assertThat(replay.ratingAfter).containsExactly(ratingAfter);
+    }
+
+    @Test
+    void sameResultsReplayToTheSameArrays() {
+        RatingReplay.Results results = randomHistory(new Random(7), 2_000, 100);
+
+        RatingReplay sequential = RatingReplay.run(results, Integer.MAX_VALUE);
+        RatingReplay parallel = RatingReplay.run(results, 1);
+
+        assertThat(parallel.rating).containsExactly(sequential.rating);
+        assertThat(parallel.deviation).containsExactly(sequential.deviation);
+        assertThat(parallel.racesRated).containsExactly(sequential.racesRated);
+        assertThat(parallel.ratingBefore).containsExactly(sequential.ratingBefore);
+        assertThat(parallel.deviationBefore).containsExactly(sequential.deviationBefore);
+        assertThat(parallel.deviationAfter).containsExactly(sequential.deviationAfter);
+    }
+
+    @Test
+    void raceWithOneRacerIsNotRated() {
+        RatingReplay.ResultsBuilder builder = new RatingReplay.ResultsBuilder();
+        builder.add(1, 100, 1);
+        builder.add(2, 100, 1);
+        builder.add(2, 200, 2);
+
+        RatingReplay replay = RatingReplay.run(builder.build(), Integer.MAX_VALUE);
+
+        assertThat(replay.racesRated).containsExactly(1, 1);
+        assertThat(replay.waveCount).isEqualTo(2);
+    }
+
+    // Races of 2 to 8 distinct racers with shuffled ranks (some tied), in race order
+    static RatingReplay.Results randomHistory(Random random, int races, int players) {
+        RatingReplay.ResultsBuilder builder = new RatingReplay.ResultsBuilder();
+        int[] pool = new int[players];
+        for (int p = 0; p < players; p++) {
+            pool[p] = p;
+        }
+        for (int race = 0; race < races; race++) {
+            int size = 2 + random.nextInt(7);
+            for (int i = 0; i < size; i++) {
+                int j = i + random.nextInt(players - i);
+                int swap = pool[i];
+                pool[i] = pool[j];
+                pool[j] = swap;
+            }
+            for (int i = 0; i < size; i++) {
+                builder.add(1_000L + race, 10_000L + pool[i], 1 + random.nextInt(size));
+            }
+        }
+        return builder.build();
+    }
+}